@@ -1,15 +0,0 @@
-/**
- * SummaryMetrics.java
- * Holds the averaged performance metrics for one supply chain design 
- * across all R replications.
- */
-public class SummaryMetrics {
-    double totalCostPerDay;
-    double fillRate;
-    double avgHoldingCostPerDay;
-    double avgBackorderCostPerDay;
-    double avgTransportCostPerDay;
-    double avgOrdersPerDay;
-
-    // Constructor, getters, and setters would be here...
-}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package inventory;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkRunner.java
+ * Entry point of benchmarks.jar: runs the selected benchmarks (all by default) with the
+ * gc profiler attached, so every result reports allocation rate next to throughput.
+ * Accepts the usual JMH command-line options, e.g. "ReplicationBenchmark -p nRetailers=10000".
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
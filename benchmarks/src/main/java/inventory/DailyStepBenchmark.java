@@ -0,0 +1,183 @@
+package inventory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * DailyStepBenchmark.java
+ * Microbenchmarks for the per-node steps of the daily cycle in Simulation.
+ * One operation is one simulated day across all nRetailers retailers. Benchmarks that step
+ * through days start a new replication after tDays of them, as a run of that horizon would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class DailyStepBenchmark {
+
+    private static final int DEMAND = (int) Params.DEMAND_MEAN_DAILY;
+
+    @Param({"3", "100", "10000"})
+    int nRetailers;
+
+    @Param({"1", "4", "8"})
+    int leadTime;
+
+    @Param({"30", "365"})
+    int tDays;
+
+    @Param({"ZIGGURAT", "JDK"})
+    NormalSampler sampler;
+
+    private Simulation sim;
+    private NodeState mfg;
+    private NodeState[] nodes;
+    private SplittableRandom[] rngs;
+    private NormalDemandSource source;
+    private int[] demandToday;
+    private double[] normals;
+    private Metrics metrics;
+    private int day;
+    private List<NodeState> retailers;
+    private Scenario scenario;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sim = new Simulation(new ReplicationExecutor(1), new RandomStreams(Params.MASTER_SEED));
+        mfg = new NodeState(NodeState.MFG);
+        rngs = RandomStreams.retailerStreams(Params.MASTER_SEED, nRetailers);
+        demandToday = new int[nRetailers];
+        normals = new double[nRetailers];
+        NormalSampler.ZIGGURAT.fill(new SplittableRandom(Params.MASTER_SEED), normals, 0, nRetailers);
+        nodes = new NodeState[nRetailers];
+        for (int i = 0; i < nRetailers; i++) {
+            nodes[i] = new NodeState(i + 1);
+            nodes[i].setBaseStock(DEMAND * (leadTime + 1));
+        }
+        retailers = Arrays.asList(nodes);
+        scenario = Scenario.defaults().withRetailers(nRetailers).withLeadMfgToRetailer(leadTime);
+    }
+
+    /**
+     * Steady state: every pipeline slot holds one day's demand, so each receipt and each review moves stock.
+     */
+    @Setup(Level.Iteration)
+    public void resetState() {
+        startReplication();
+    }
+
+    /**
+     * Back to day 1 with fresh nodes, metrics and demand streams.
+     */
+    private void startReplication() {
+        metrics = new Metrics();
+        day = 1;
+        source = new NormalDemandSource(Params.MASTER_SEED, nRetailers, Params.DEMAND_MEAN_DAILY, Params.DEMAND_SIGMA_DAILY, sampler);
+        for (NodeState n : nodes) {
+            n.setOnHand(DEMAND);
+            n.setBackorder(0);
+            n.clearInTransit();
+            for (int lead = 1; lead <= leadTime; lead++) {
+                n.addInTransit(0, lead, DEMAND);
+            }
+        }
+    }
+
+    /**
+     * Today's day number; after day tDays the next call starts a new replication.
+     */
+    private int nextDay() {
+        if (day > tDays) {
+            startReplication();
+        }
+        return day++;
+    }
+
+    @Benchmark
+    public void drawDailyDemand(Blackhole bh) {
+        for (int i = 0; i < nRetailers; i++) {
+            bh.consume(NormalDemandSource.drawDailyDemand(sampler, rngs[i], Params.DEMAND_MEAN_DAILY, Params.DEMAND_SIGMA_DAILY));
+        }
+    }
+
+    @Benchmark
+    public int[] toDemandScalar() {
+        DemandTransform.scalar().toDemand(normals, Params.DEMAND_MEAN_DAILY, Params.DEMAND_SIGMA_DAILY, demandToday, 0, nRetailers);
+        return demandToday;
+    }
+
+    /**
+     * The Vector API transform when the fork has jdk.incubator.vector, else the same scalar loop.
+     */
+    @Benchmark
+    public int[] toDemandBest() {
+        DemandTransform.best().toDemand(normals, Params.DEMAND_MEAN_DAILY, Params.DEMAND_SIGMA_DAILY, demandToday, 0, nRetailers);
+        return demandToday;
+    }
+
+    @Benchmark
+    public int[] fillDay() {
+        source.fillDay(nextDay(), demandToday);
+        return demandToday;
+    }
+
+    @Benchmark
+    public void inventoryPosition(Blackhole bh) {
+        for (NodeState n : nodes) {
+            bh.consume(sim.inventoryPosition(n));
+        }
+    }
+
+    /**
+     * Receipt alone; the ring slot costs the same whether it is full or already drained.
+     */
+    @Benchmark
+    public void receiveShipments() {
+        int today = nextDay();
+        for (NodeState n : nodes) {
+            sim.receiveShipments(n, today);
+        }
+    }
+
+    /**
+     * A full node-day: receive, serve a fixed demand, then the base-stock review re-orders it.
+     */
+    @Benchmark
+    public void placeBaseStockOrder() {
+        int today = nextDay();
+        for (NodeState n : nodes) {
+            sim.receiveShipments(n, today);
+            sim.clearBackordersWithReceipt(n);
+            sim.fulfillDemand(n, DEMAND, metrics);
+            sim.placeBaseStockOrder(n, mfg, leadTime, Params.COST_TRANSPORT_DIRECT, today, metrics);
+        }
+    }
+
+    /**
+     * The whole decentralized day as the replication loop runs it; the gc profiler should report ~0 B/op
+     * apart from each replication's restart.
+     */
+    @Benchmark
+    public void decentralizedDay() {
+        int today = nextDay();
+        sim.runDecentralizedDay(today, source, demandToday, retailers, mfg, metrics, scenario, null);
+    }
+}
@@ -0,0 +1,150 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ReplicationBenchmark.java
+ * Cost of one full replication on each engine. Demand is pre-generated per trial,
+ * so only the inventory cycle itself is measured (see DailyStepBenchmark for demand).
+ * Run with the gc profiler (BenchmarkRunner adds it) to see the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ReplicationBenchmark {
+
+    @Param({"3", "100", "10000"})
+    int nRetailers;
+
+    @Param({"30", "365"})
+    int tDays;
+
+    @Param({"1", "4", "8"})
+    int leadTime; // Decentralized MFG -> retailer lead time.
+
+    @Param({"1"})
+    int shards;   // Threads per replication on the array kernels, e.g. -p shards=1,8 -p nRetailers=10000.
+
+    private Scenario sc;
+    private Simulation sim;
+    private DemandMatrix demand;
+    private NodeState mfg;
+    private NodeState cw;
+    private List<NodeState> centralRetailers;
+    private List<NodeState> directRetailers;
+    private ArrayKernel centralKernel;
+    private ArrayKernel directKernel;
+    private EventEngine centralEvents;
+    private EventEngine directEvents;
+    private NetworkEngine centralNetwork;
+    private NetworkEngine directNetwork;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sc = Scenario.defaults().withRetailers(nRetailers).withDays(tDays).withLeadMfgToRetailer(leadTime);
+        sim = new Simulation(new ReplicationExecutor(1), new RandomStreams(Params.MASTER_SEED));
+        demand = DemandMatrix.generate(sim.newDemandSource(Params.MASTER_SEED, sc), tDays, nRetailers);
+        mfg = new NodeState(NodeState.MFG);
+        cw = new NodeState(NodeState.CW);
+        centralRetailers = retailers();
+        directRetailers = retailers();
+        sim.computeBaseStocksAdvanced(centralRetailers, cw, true, sc);
+        sim.computeBaseStocksAdvanced(directRetailers, null, false, sc);
+
+        int centralLead = sc.getMaxCentralizedLead();
+        centralKernel = new ArrayKernel(nRetailers, centralLead);
+        centralKernel.loadBaseStocks(centralRetailers, cw);
+        directKernel = new ArrayKernel(nRetailers, leadTime);
+        directKernel.loadBaseStocks(directRetailers, null);
+        if (shards > 1) {
+            ReplicationExecutor pool = new ReplicationExecutor(shards);
+            centralKernel.setShards(pool, shards);
+            directKernel.setShards(pool, shards);
+        }
+        centralEvents = new EventEngine(nRetailers, centralLead);
+        centralEvents.loadBaseStocks(centralRetailers, cw);
+        directEvents = new EventEngine(nRetailers, leadTime);
+        directEvents.loadBaseStocks(directRetailers, null);
+        centralNetwork = network(Topology.of(sc, centralRetailers, cw));
+        directNetwork = network(Topology.of(sc, directRetailers, null));
+    }
+
+    @Benchmark
+    public Metrics centralizedObject() {
+        reset(cw);
+        for (NodeState r : centralRetailers) reset(r);
+        return sim.runCentralizedReplication(demand, centralRetailers, cw, mfg, sc);
+    }
+
+    @Benchmark
+    public Metrics decentralizedObject() {
+        for (NodeState r : directRetailers) reset(r);
+        return sim.runDecentralizedReplication(demand, directRetailers, mfg, sc);
+    }
+
+    @Benchmark
+    public Metrics centralizedArray() {
+        return centralKernel.runCentralized(demand, sc);
+    }
+
+    @Benchmark
+    public Metrics decentralizedArray() {
+        return directKernel.runDecentralized(demand, sc);
+    }
+
+    @Benchmark
+    public Metrics centralizedEvent() {
+        return centralEvents.runCentralized(demand, sc);
+    }
+
+    @Benchmark
+    public Metrics decentralizedEvent() {
+        return directEvents.runDecentralized(demand, sc);
+    }
+
+    @Benchmark
+    public Metrics centralizedNetwork() {
+        return centralNetwork.run(demand, sc);
+    }
+
+    @Benchmark
+    public Metrics decentralizedNetwork() {
+        return directNetwork.run(demand, sc);
+    }
+
+    private List<NodeState> retailers() {
+        List<NodeState> list = new ArrayList<>(nRetailers);
+        for (int i = 1; i <= nRetailers; i++) list.add(new NodeState(i));
+        return list;
+    }
+
+    private NetworkEngine network(Topology topology) {
+        NetworkEngine engine = new NetworkEngine(topology);
+        engine.loadBaseStocks(topology.baseStocks(sc));
+        return engine;
+    }
+
+    private static void reset(NodeState node) {
+        node.setOnHand(node.getBaseStock());
+        node.setBackorder(0);
+        node.clearInTransit();
+    }
+}
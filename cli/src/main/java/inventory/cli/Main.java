@@ -0,0 +1,132 @@
+package inventory.cli;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import inventory.BaseStockOptimizer;
+import inventory.CsvResultSink;
+import inventory.Params;
+import inventory.RandomStreams;
+import inventory.ReplicationExecutor;
+import inventory.Scenario;
+import inventory.Simulation;
+import inventory.SweepPlan;
+import inventory.SweepRunner;
+
+/**
+ * Main.java
+ * Command-line runner for the Centralized vs. Decentralized experiment.
+ * Without a scenario it runs the five standard tests; with --config and/or --set it runs
+ * that one scenario instead (keys as in Scenario.with, e.g. --set rho=0.5 --set holdingCost=1.0).
+ * With --sweep it expands a SweepPlan around that scenario and streams one CSV row per point
+ * to --out (default: standard output). With --optimize it searches cost-minimal base stocks
+ * for both designs of the scenario by simulation (see BaseStockOptimizer). With --write-tape it
+ * records the scenario's demand to a DemandTape file, which later runs replay via --set demandTape=file.
+ */
+public class Main {
+
+    private static final String USAGE =
+        "Usage: java -jar inventory-sim.jar [--threads N] [--seed S] [--config file.properties] [--set key=value ...]"
+        + " [--sweep plan.properties [--out results.csv]] [--optimize] [--write-tape demand.tape]";
+
+    public static void main(String[] args) throws Exception {
+        int threads = Params.N_THREADS;
+        long seed = Params.MASTER_SEED;
+        Scenario scenario = null;
+        List<String> overrides = new ArrayList<>();
+        Path sweep = null;
+        Path out = null;
+        boolean optimize = false;
+        Path tape = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value(args, ++i));
+                    break;
+                case "--config":
+                    scenario = Scenario.fromFile(Paths.get(value(args, ++i)));
+                    break;
+                case "--set":
+                    overrides.add(value(args, ++i));
+                    break;
+                case "--sweep":
+                    sweep = Paths.get(value(args, ++i));
+                    break;
+                case "--out":
+                    out = Paths.get(value(args, ++i));
+                    break;
+                case "--optimize":
+                    optimize = true;
+                    break;
+                case "--write-tape":
+                    tape = Paths.get(value(args, ++i));
+                    break;
+                case "-h":
+                case "--help":
+                    System.out.println(USAGE);
+                    return;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i] + "\n" + USAGE);
+            }
+        }
+
+        ReplicationExecutor executor = new ReplicationExecutor(threads);
+        Simulation sim = new Simulation(executor, new RandomStreams(seed));
+        Scenario sc = (scenario == null ? Scenario.defaults() : scenario).withOverrides(overrides);
+        if (sweep != null) {
+            SweepPlan plan = SweepPlan.fromProperties(sc, load(sweep));
+            Writer w = out == null ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                                   : Files.newBufferedWriter(out, StandardCharsets.UTF_8);
+            try (CsvResultSink sink = new CsvResultSink(w, out != null)) {
+                new SweepRunner(executor, sim).run(plan, sink);
+            }
+            return;
+        }
+        if (tape != null) {
+            sim.writeDemandTape(sc, tape);
+            System.out.printf("Wrote %d replications x %d days x %d retailers to %s%n",
+                sc.getReplicationBudget(), sc.getDays(), sc.getRetailers(), tape);
+            return;
+        }
+        if (optimize) {
+            BaseStockOptimizer optimizer = new BaseStockOptimizer(executor, sim);
+            System.out.println(sc);
+            System.out.println("Centralized:   " + optimizer.optimize(sc, true));
+            System.out.println("Decentralized: " + optimizer.optimize(sc, false));
+            return;
+        }
+        if (scenario == null && overrides.isEmpty()) {
+            sim.runExperiment();
+            return;
+        }
+        System.out.println(sc);
+        sim.printResult(sim.runScenario(sc));
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties props = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(in);
+        }
+        return props;
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+}
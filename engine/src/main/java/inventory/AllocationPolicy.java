@@ -0,0 +1,12 @@
+package inventory;
+
+/**
+ * AllocationPolicy.java
+ * Selects how the CW rations its on-hand stock among retailers when it cannot ship everything
+ * it owes (see CwOrderBook). With enough stock every policy ships every open order in full.
+ */
+public enum AllocationPolicy {
+    FIFO,         // Oldest open orders first; orders of the same day by retailer.
+    PROPORTIONAL, // Each retailer gets the same fraction of what it is owed.
+    BALANCED      // Lowest retailer inventory positions are raised first, to a common level.
+}
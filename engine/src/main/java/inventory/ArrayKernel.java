@@ -0,0 +1,425 @@
+package inventory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ArrayKernel.java
+ * Struct-of-arrays version of the daily cycle for large retailer counts.
+ * Retailer state lives in primitive arrays indexed by retailer (0 .. N-1), and each
+ * phase of the day is a straight loop over those arrays. The CW is a handful of scalars.
+ * Phases and their order are the same as in Simulation, so both produce identical Metrics
+ * for the same demand.
+ *
+ * One replication can also run bulk-synchronously on several threads (setShards): the retailers
+ * are split into contiguous shards, and each day every shard runs its retailers' phases (delivery
+ * of yesterday's CW shipments, arrivals, service, reviews, costs) on its own thread into its own
+ * Metrics. Joining the shards is the day's barrier; the serial CW step then books the reviews'
+ * orders in retailer order, rations and ships, and re-orders, so FIFO queues and every other
+ * outcome match the single-threaded run exactly. Demand is drawn serially before the shards start.
+ * A kernel is reusable across replications but not thread-safe; use one per worker.
+ */
+public class ArrayKernel {
+
+    private final int n;
+    private final int[] onHand;
+    private final int[] backorder;
+    private final int[] baseStock;
+    private final int[] inTransit;  // Running pipeline total per retailer.
+    private final int[] pipeline;   // Retailer i, arrival day d: pipeline[i * cap + d % cap].
+    private final int[] demandToday;
+    private final int cap;
+
+    private int cwOnHand;
+    private int cwBaseStock;
+    private int cwInTransit;
+    private final int[] cwPipeline;
+    private final CwOrderBook cwBook; // Retailer orders the CW has not shipped yet (its backorders).
+    private final int[] orderQty;     // Today's review quantity per retailer, booked at the CW after the shards join.
+
+    // Shards: contiguous retailer ranges [shardStart[s], shardStart[s + 1]) whose daily phases run in parallel.
+    private ReplicationExecutor executor;
+    private int shards = 1;
+    private int[] shardStart;
+
+    // Per-run parameters, read by the shard phases.
+    private int retailerLead;
+    private double retailerCost;
+    private double holding;
+    private double backorderCost;
+    private boolean fused;            // One pass per retailer (stepFused) instead of one per phase.
+    private Metrics[] parts;          // One per shard; parts[0] also takes the serial CW steps.
+
+    /**
+     * Constructor for a kernel with nRetailers retailers and lead times up to maxLead days.
+     */
+    public ArrayKernel(int nRetailers, int maxLead) {
+        if (maxLead < 1) {
+            throw new IllegalArgumentException("Lead time must be at least one day.");
+        }
+        this.n = nRetailers;
+        this.cap = maxLead + 1;
+        this.onHand = new int[n];
+        this.backorder = new int[n];
+        this.baseStock = new int[n];
+        this.inTransit = new int[n];
+        this.pipeline = new int[n * cap];
+        this.demandToday = new int[n];
+        this.cwPipeline = new int[cap];
+        this.cwBook = new CwOrderBook(n);
+        this.orderQty = new int[n];
+        this.shardStart = new int[] {0, n};
+    }
+
+    /**
+     * Copies the base-stock levels computed on the object model (cw may be null).
+     */
+    public void loadBaseStocks(List<NodeState> retailers, NodeState cw) {
+        if (retailers.size() != n) {
+            throw new IllegalArgumentException("Kernel holds " + n + " retailers, got " + retailers.size() + ".");
+        }
+        for (int i = 0; i < n; i++) {
+            baseStock[i] = retailers.get(i).getBaseStock();
+        }
+        cwBaseStock = cw == null ? 0 : cw.getBaseStock();
+    }
+
+    public void setBaseStocks(int retailerBaseStock, int cwBaseStock) {
+        Arrays.fill(baseStock, retailerBaseStock);
+        this.cwBaseStock = cwBaseStock;
+    }
+
+    /**
+     * Starts every node at its base stock with nothing in transit or backordered.
+     */
+    public void reset() {
+        System.arraycopy(baseStock, 0, onHand, 0, n);
+        Arrays.fill(backorder, 0);
+        Arrays.fill(inTransit, 0);
+        Arrays.fill(pipeline, 0);
+        cwOnHand = cwBaseStock;
+        cwInTransit = 0;
+        Arrays.fill(cwPipeline, 0);
+    }
+
+    public int getOnHand(int retailer) {
+        return onHand[retailer];
+    }
+
+    public int getBackorder(int retailer) {
+        return backorder[retailer];
+    }
+
+    public int getInTransit(int retailer) {
+        return inTransit[retailer];
+    }
+
+    /**
+     * Runs each replication's retailer phases on 'shards' threads of the executor (see the class comment).
+     * Results are identical for every shard count; 1 runs everything on the calling thread.
+     */
+    public void setShards(ReplicationExecutor executor, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Shard count must be positive.");
+        }
+        if (shards > 1 && executor == null) {
+            throw new IllegalArgumentException("Sharded runs need an executor.");
+        }
+        this.executor = executor;
+        this.shards = Math.min(shards, n);
+        this.shardStart = new int[this.shards + 1];
+        for (int s = 0; s <= this.shards; s++) {
+            shardStart[s] = (int) ((long) n * s / this.shards);
+        }
+    }
+
+    // --- Replications ---
+
+    public Metrics runCentralized(DemandSource demand, Scenario sc) {
+        checkLead(sc.getLeadMfgToCw());
+        checkLead(sc.getLeadCwToRetailer());
+        begin(sc, sc.getLeadCwToRetailer(), sc.getTransportOutbound());
+        cwBook.reset(sc.getAllocation());
+        Metrics metrics = parts[0];
+        for (int day = 1; day <= sc.getDays(); day++) {
+            // 1) CW arrivals (the CW serves its backorders when it ships in step 3), today's demand
+            int slot = day % cap;
+            cwOnHand += cwPipeline[slot];
+            cwInTransit -= cwPipeline[slot];
+            cwPipeline[slot] = 0;
+            demand.fillDay(day, demandToday);
+
+            // 2) Per shard: yesterday's shipments, arrivals and clearing, service, reviews, retailer costs
+            runShards(day, true);
+
+            // 3) The CW books the reviews' orders, ships what it can, then reviews; CW holding cost
+            for (int i = 0; i < n; i++) {
+                if (orderQty[i] > 0) cwBook.order(i, orderQty[i]);
+            }
+            if (cwBook.needsPositions(cwOnHand)) {
+                for (int i = 0; i < n; i++) {
+                    cwBook.setPosition(i, onHand[i] + inTransit[i] - backorder[i]);
+                }
+            }
+            cwOnHand -= cwBook.allocate(cwOnHand); // Shipped quantities go out in the next shard phase.
+            int cwQty = cwBaseStock - (cwOnHand + cwInTransit - cwBook.getTotalOwed());
+            if (cwQty > 0) {
+                cwPipeline[(day + sc.getLeadMfgToCw()) % cap] += cwQty;
+                cwInTransit += cwQty;
+                metrics.addTransportCost(cwQty, sc.getTransportInbound());
+                metrics.incrementOrdersCount();
+            }
+            metrics.addHoldingCost(cwOnHand, holding);
+        }
+        deliver(sc.getDays(), 0, n, metrics); // The last day's shipments still pay transport.
+        return merge();
+    }
+
+    public Metrics runDecentralized(DemandSource demand, Scenario sc) {
+        checkLead(sc.getLeadMfgToRetailer());
+        begin(sc, sc.getLeadMfgToRetailer(), sc.getTransportDirect());
+        for (int day = 1; day <= sc.getDays(); day++) {
+            demand.fillDay(day, demandToday);
+            runShards(day, false);
+        }
+        return merge();
+    }
+
+    private void begin(Scenario sc, int lead, double cPerUnit) {
+        this.retailerLead = lead;
+        this.retailerCost = cPerUnit;
+        this.holding = sc.getHoldingCost();
+        this.backorderCost = sc.getBackorderCost();
+        this.fused = sc.isFusedStep();
+        reset();
+        parts = new Metrics[shards];
+        for (int s = 0; s < shards; s++) {
+            parts[s] = new Metrics();
+        }
+    }
+
+    private Metrics merge() {
+        for (int s = 1; s < shards; s++) {
+            parts[0].merge(parts[s]);
+        }
+        return parts[0];
+    }
+
+    // --- Daily phases over the retailer arrays ---
+
+    private void runShards(int day, boolean centralized) {
+        if (shards == 1) {
+            shardDay(0, day, centralized);
+        } else {
+            executor.forEach(shards, s -> shardDay(s, day, centralized));
+        }
+    }
+
+    private void shardDay(int s, int day, boolean centralized) {
+        int from = shardStart[s];
+        int to = shardStart[s + 1];
+        Metrics metrics = parts[s];
+        if (centralized) deliver(day - 1, from, to, metrics);
+        if (fused) {
+            if (centralized) {
+                stepFusedForCw(day, from, to, metrics);
+            } else {
+                stepFusedDirect(day, from, to, metrics);
+            }
+            return;
+        }
+        receiveAndClear(day % cap, from, to);
+        fulfill(from, to, metrics);
+        if (centralized) {
+            reviewForCw(from, to, metrics);
+        } else {
+            order(day, from, to, metrics);
+        }
+        accrue(from, to, metrics);
+    }
+
+    /**
+     * Puts the CW's shipments of 'shipDay' (from the last allocate) into the retailers' pipelines.
+     */
+    private void deliver(int shipDay, int from, int to, Metrics metrics) {
+        if (shipDay < 1) return;
+        int slot = (shipDay + retailerLead) % cap;
+        for (int i = from, p = from * cap + slot; i < to; i++, p += cap) {
+            int qty = cwBook.getShipped(i);
+            if (qty > 0) {
+                pipeline[p] += qty;
+                inTransit[i] += qty;
+                metrics.addTransportCost(qty, retailerCost);
+            }
+        }
+    }
+
+    private void receiveAndClear(int slot, int from, int to) {
+        for (int i = from, p = from * cap + slot; i < to; i++, p += cap) {
+            int arrived = pipeline[p];
+            pipeline[p] = 0;
+            inTransit[i] -= arrived;
+            int oh = onHand[i] + arrived;
+            int bo = backorder[i];
+            int cleared = Math.min(oh, bo);
+            onHand[i] = oh - cleared;
+            backorder[i] = bo - cleared;
+        }
+    }
+
+    private void fulfill(int from, int to, Metrics metrics) {
+        for (int i = from; i < to; i++) {
+            int d = demandToday[i];
+            int served = Math.min(onHand[i], d);
+            onHand[i] -= served;
+            int shortage = d - served;
+            backorder[i] += shortage;
+            metrics.addFillImmediate(served);
+            metrics.addBackordersCreated(shortage);
+            metrics.addDemandTotal(d);
+        }
+    }
+
+    /**
+     * Reviews against the CW; units the CW still owes count as stock on order. Booked serially afterwards.
+     */
+    private void reviewForCw(int from, int to, Metrics metrics) {
+        for (int i = from; i < to; i++) {
+            int qty = baseStock[i] - (onHand[i] + inTransit[i] + cwBook.getOwed(i) - backorder[i]);
+            if (qty > 0) {
+                orderQty[i] = qty;
+                metrics.incrementOrdersCount();
+            } else {
+                orderQty[i] = 0;
+            }
+        }
+    }
+
+    private void order(int day, int from, int to, Metrics metrics) {
+        int slot = (day + retailerLead) % cap;
+        for (int i = from, p = from * cap + slot; i < to; i++, p += cap) {
+            int qty = baseStock[i] - (onHand[i] + inTransit[i] - backorder[i]);
+            if (qty > 0) {
+                pipeline[p] += qty;
+                inTransit[i] += qty;
+                metrics.addTransportCost(qty, retailerCost);
+                metrics.incrementOrdersCount();
+            }
+        }
+    }
+
+    /**
+     * Arrivals, clearing, service, review against the CW and costs of each retailer in one visit, with
+     * its state in registers; the same arithmetic as the separate phases below. Unit totals are kept in
+     * locals and booked once per shard, which gives identical Metrics because every cost is units * rate.
+     */
+    private void stepFusedForCw(int day, int from, int to, Metrics metrics) {
+        int slot = day % cap;
+        long served = 0;
+        long demanded = 0;
+        long orders = 0;
+        long held = 0;
+        long owed = 0;
+        for (int i = from, p = from * cap + slot; i < to; i++, p += cap) {
+            int arrived = pipeline[p];
+            pipeline[p] = 0;
+            int it = inTransit[i] - arrived;
+            int oh = onHand[i] + arrived;
+            int bo = backorder[i];
+            int cleared = Math.min(oh, bo);
+            oh -= cleared;
+            bo -= cleared;
+
+            int d = demandToday[i];
+            int fill = Math.min(oh, d);
+            oh -= fill;
+            bo += d - fill;
+            served += fill;
+            demanded += d;
+
+            int qty = baseStock[i] - (oh + it + cwBook.getOwed(i) - bo);
+            if (qty > 0) {
+                orderQty[i] = qty;
+                orders++;
+            } else {
+                orderQty[i] = 0;
+            }
+
+            held += oh;
+            owed += bo;
+            onHand[i] = oh;
+            backorder[i] = bo;
+            inTransit[i] = it;
+        }
+        book(metrics, served, demanded, orders, 0, held, owed);
+    }
+
+    /**
+     * The decentralized counterpart of stepFusedForCw: the review orders straight from the MFG.
+     */
+    private void stepFusedDirect(int day, int from, int to, Metrics metrics) {
+        int slot = day % cap;
+        int orderSlot = (day + retailerLead) % cap;
+        long served = 0;
+        long demanded = 0;
+        long orders = 0;
+        long ordered = 0;
+        long held = 0;
+        long owed = 0;
+        for (int i = from, base = from * cap; i < to; i++, base += cap) {
+            int arrived = pipeline[base + slot];
+            pipeline[base + slot] = 0;
+            int it = inTransit[i] - arrived;
+            int oh = onHand[i] + arrived;
+            int bo = backorder[i];
+            int cleared = Math.min(oh, bo);
+            oh -= cleared;
+            bo -= cleared;
+
+            int d = demandToday[i];
+            int fill = Math.min(oh, d);
+            oh -= fill;
+            bo += d - fill;
+            served += fill;
+            demanded += d;
+
+            int qty = baseStock[i] - (oh + it - bo);
+            if (qty > 0) {
+                pipeline[base + orderSlot] += qty;
+                it += qty;
+                ordered += qty;
+                orders++;
+            }
+
+            held += oh;
+            owed += bo;
+            onHand[i] = oh;
+            backorder[i] = bo;
+            inTransit[i] = it;
+        }
+        book(metrics, served, demanded, orders, ordered, held, owed);
+    }
+
+    private void book(Metrics metrics, long served, long demanded, long orders, long ordered, long held, long owed) {
+        metrics.addFillImmediate(served);
+        metrics.addBackordersCreated(demanded - served);
+        metrics.addDemandTotal(demanded);
+        metrics.addOrdersCount(orders);
+        metrics.addTransportCost(ordered, retailerCost);
+        metrics.addHoldingCost(held, holding);
+        metrics.addBackorderCost(owed, backorderCost);
+    }
+
+    private void accrue(int from, int to, Metrics metrics) {
+        for (int i = from; i < to; i++) {
+            metrics.addHoldingCost(onHand[i], holding);
+            metrics.addBackorderCost(backorder[i], backorderCost);
+        }
+    }
+
+    private void checkLead(int lead) {
+        if (lead < 1 || lead >= cap) {
+            throw new IllegalArgumentException("Lead time " + lead + " is outside 1.." + (cap - 1) + " for this kernel.");
+        }
+    }
+}
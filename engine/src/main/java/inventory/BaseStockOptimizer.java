@@ -0,0 +1,181 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BaseStockOptimizer.java
+ * Searches the base-stock levels of one design by simulation instead of the normal-approximation
+ * formula in computeBaseStocksAdvanced. The objective is the mean total cost per day subject to
+ * the pooled fill rate reaching the scenario's target fill rate.
+ *
+ * The search is an integer pattern search over (offset, S_cw), where every retailer holds its own
+ * formula level plus the common offset, so retailers with different demand (a covariance matrix)
+ * keep their different levels. Starting from offset 0 and the formula's S_cw, all neighbours at
+ * the current step are simulated in parallel, the best one is taken if it improves, and otherwise
+ * the step is halved until it reaches one unit. Every candidate is run
+ * on the same replications' demand (common random numbers), so the ranking of neighbours reflects
+ * the levels rather than sampling noise.
+ */
+public class BaseStockOptimizer {
+
+    private static final int MAX_EVALUATIONS = 500; // Budget of distinct candidate levels per search.
+
+    private final ReplicationExecutor executor;
+    private final Simulation sim;
+
+    /**
+     * Outcome of the search: the chosen levels and their simulated performance.
+     */
+    public static class Solution {
+        final int[] retailerBaseStocks; // Indexed by retailer - 1.
+        final int retailerOffset;       // Added to every retailer's formula level.
+        final int cwBaseStock;          // 0 for the decentralized design.
+        final SummaryMetrics metrics;
+        final int evaluations;          // Distinct candidates simulated.
+
+        Solution(int[] retailerBaseStocks, int retailerOffset, int cwBaseStock, SummaryMetrics metrics, int evaluations) {
+            this.retailerBaseStocks = retailerBaseStocks;
+            this.retailerOffset = retailerOffset;
+            this.cwBaseStock = cwBaseStock;
+            this.metrics = metrics;
+            this.evaluations = evaluations;
+        }
+
+        public int getRetailerBaseStock(int retailer) { return retailerBaseStocks[retailer - 1]; }
+        public int getRetailerOffset() { return retailerOffset; }
+        public int getCwBaseStock() { return cwBaseStock; }
+        public SummaryMetrics getMetrics() { return metrics; }
+        public int getEvaluations() { return evaluations; }
+
+        @Override
+        public String toString() {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int s : retailerBaseStocks) {
+                min = Math.min(min, s);
+                max = Math.max(max, s);
+            }
+            String retailers = min == max ? String.valueOf(min) : min + ".." + max;
+            return String.format("S_retailer=%s (formula %+d), S_cw=%d: cost/day=%.2f, fill rate=%.4f (%d candidates)",
+                retailers, retailerOffset, cwBaseStock, metrics.totalCostPerDay, metrics.fillRate, evaluations);
+        }
+    }
+
+    /**
+     * Constructor for an optimizer; sim should be built on the same executor.
+     */
+    public BaseStockOptimizer(ReplicationExecutor executor, Simulation sim) {
+        this.executor = executor;
+        this.sim = sim;
+    }
+
+    /**
+     * Finds cost-minimal base stocks for one design of the scenario, using its replication count.
+     */
+    public Solution optimize(Scenario sc, boolean centralized) {
+        // Start from the formula's levels; the search moves all retailers by one offset.
+        List<NodeState> retailers = new ArrayList<>();
+        for (int i = 1; i <= sc.getRetailers(); i++) retailers.add(new NodeState(i));
+        NodeState cw = centralized ? new NodeState(NodeState.CW) : null;
+        sim.computeBaseStocksAdvanced(retailers, cw, centralized, sc);
+        int[] formula = new int[retailers.size()];
+        int minLevel = Integer.MAX_VALUE;
+        long sumLevel = 0;
+        for (int i = 0; i < formula.length; i++) {
+            formula[i] = retailers.get(i).getBaseStock();
+            minLevel = Math.min(minLevel, formula[i]);
+            sumLevel += formula[i];
+        }
+        int[] best = {0, centralized ? cw.getBaseStock() : 0};
+
+        Map<Long, SummaryMetrics> evaluated = new HashMap<>();
+        SummaryMetrics bestMetrics = evaluate(sc, centralized, formula, List.of(best)).get(0);
+        evaluated.put(key(best), bestMetrics);
+
+        int[] step = {(int) Math.max(1, sumLevel / formula.length / 10), centralized ? Math.max(1, best[1] / 10) : 0};
+        while (evaluated.size() < MAX_EVALUATIONS) {
+            List<int[]> candidates = new ArrayList<>();
+            for (int[] c : neighbours(best, step)) {
+                // No retailer may go below zero.
+                if (c[0] >= -minLevel && c[1] >= 0 && !evaluated.containsKey(key(c))) candidates.add(c);
+            }
+            List<SummaryMetrics> results = evaluate(sc, centralized, formula, candidates);
+
+            int[] next = null;
+            for (int i = 0; i < candidates.size(); i++) {
+                evaluated.put(key(candidates.get(i)), results.get(i));
+                if (better(results.get(i), bestMetrics, sc.getTargetFillRate())) {
+                    next = candidates.get(i);
+                    bestMetrics = results.get(i);
+                }
+            }
+            if (next != null) {
+                best = next;
+            } else if (step[0] > 1 || step[1] > 1) {
+                step[0] = Math.max(1, step[0] / 2);
+                step[1] = centralized ? Math.max(1, step[1] / 2) : 0;
+            } else {
+                break;
+            }
+        }
+        return new Solution(levels(formula, best[0]), best[0], best[1], bestMetrics, evaluated.size());
+    }
+
+    /**
+     * Simulates every candidate over the same replications; candidates and replications all run in the pool.
+     */
+    private List<SummaryMetrics> evaluate(Scenario sc, boolean centralized, int[] formula, List<int[]> candidates) {
+        return executor.map(candidates.size(), j -> {
+            int[] c = candidates.get(j);
+            int[] retailerLevels = levels(formula, c[0]);
+            return executor.reduce(sc.getReplications(), i -> {
+                Metrics m = sim.withReplicationDemand(sc, i + 1, demand -> centralized
+                    ? sim.runCentralizedDesign(demand, sc, retailerLevels, c[1])
+                    : sim.runDecentralizedDesign(demand, sc, retailerLevels));
+                ReplicationStats.Design d = new ReplicationStats.Design();
+                d.add(m, sc.getDays());
+                return d;
+            }, ReplicationStats.Design::merge).summarize();
+        });
+    }
+
+    /**
+     * Every retailer's formula level moved by the common offset.
+     */
+    private static int[] levels(int[] formula, int offset) {
+        int[] out = new int[formula.length];
+        for (int i = 0; i < formula.length; i++) out[i] = formula[i] + offset;
+        return out;
+    }
+
+    /**
+     * The 4 axis neighbours (plus the 4 diagonals for the two-level centralized design).
+     */
+    private static List<int[]> neighbours(int[] x, int[] step) {
+        List<int[]> out = new ArrayList<>();
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if ((dr == 0 && dc == 0) || (step[1] == 0 && dc != 0)) continue;
+                out.add(new int[] {x[0] + dr * step[0], x[1] + dc * step[1]});
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Feasible beats infeasible; among feasible the cheaper wins, among infeasible the better-served.
+     */
+    private static boolean better(SummaryMetrics a, SummaryMetrics b, double target) {
+        boolean feasibleA = a.fillRate >= target;
+        boolean feasibleB = b.fillRate >= target;
+        if (feasibleA != feasibleB) return feasibleA;
+        return feasibleA ? a.totalCostPerDay < b.totalCostPerDay : a.fillRate > b.fillRate;
+    }
+
+    private static long key(int[] levels) {
+        return ((long) levels[0] << 32) | (levels[1] & 0xffffffffL);
+    }
+}
@@ -0,0 +1,169 @@
+package inventory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CholeskyFactor.java
+ * Lower-triangular factor L of a symmetric positive semi-definite matrix (A = L * L^T),
+ * stored packed row by row so that applying it to a vector walks memory sequentially.
+ * Factor once per scenario; the object is immutable and can be shared by all replications.
+ */
+public class CholeskyFactor {
+
+    private static final double EPS = 1e-12; // Pivots below this are treated as zero (semi-definite matrices).
+
+    private final int n;
+    private final double[] packed; // L[i][j] (j <= i) lives at i * (i + 1) / 2 + j (see row).
+
+    private CholeskyFactor(int n, double[] packed) {
+        this.n = n;
+        this.packed = packed;
+    }
+
+    /**
+     * Factors a full N x N correlation or covariance matrix.
+     * Singular matrices such as perfect correlation (rho = 1) are accepted: zero pivots give zero columns.
+     */
+    public static CholeskyFactor factor(double[][] a) {
+        int n = a.length;
+        double[] l = new double[packedLength(n)];
+        for (int i = 0; i < n; i++) {
+            if (a[i].length != n) {
+                throw new IllegalArgumentException("Matrix must be square.");
+            }
+            int rowI = row(i);
+            for (int j = 0; j <= i; j++) {
+                int rowJ = row(j);
+                double sum = a[i][j];
+                for (int k = 0; k < j; k++) {
+                    sum -= l[rowI + k] * l[rowJ + k];
+                }
+                if (i == j) {
+                    if (sum < -EPS * Math.max(1.0, Math.abs(a[i][i]))) {
+                        throw new IllegalArgumentException("Matrix is not positive semi-definite (row " + i + ").");
+                    }
+                    l[rowI + i] = sum > EPS * Math.max(1.0, Math.abs(a[i][i])) ? Math.sqrt(sum) : 0.0;
+                } else {
+                    double pivot = l[rowJ + j];
+                    l[rowI + j] = pivot == 0.0 ? 0.0 : sum / pivot;
+                }
+            }
+        }
+        return new CholeskyFactor(n, l);
+    }
+
+    /**
+     * Builds the N x N matrix with 1 on the diagonal and rho everywhere else.
+     */
+    public static double[][] equicorrelation(int n, double rho) {
+        double[][] a = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = i == j ? 1.0 : rho;
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Reads a matrix written as N rows of N numbers, separated by blanks or commas ('#' starts a comment).
+     */
+    public static double[][] read(Path file) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String text;
+            int line = 0;
+            while ((text = in.readLine()) != null) {
+                line++;
+                int hash = text.indexOf('#');
+                String body = (hash >= 0 ? text.substring(0, hash) : text).trim();
+                if (body.isEmpty()) continue;
+                String[] f = body.split("[\\s,]+");
+                double[] row = new double[f.length];
+                try {
+                    for (int j = 0; j < f.length; j++) row[j] = Double.parseDouble(f[j]);
+                } catch (NumberFormatException e) {
+                    throw new IOException(file + " line " + line + ": " + e.getMessage(), e);
+                }
+                if (!rows.isEmpty() && row.length != rows.get(0).length) {
+                    throw new IOException(file + " line " + line + ": expected " + rows.get(0).length + " values, got " + row.length + ".");
+                }
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty() || rows.size() != rows.get(0).length) {
+            throw new IOException(file + ": expected a square matrix, got " + rows.size() + " rows.");
+        }
+        return rows.toArray(new double[0][]);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public double get(int i, int j) {
+        return j > i ? 0.0 : packed[row(i) + j];
+    }
+
+    /**
+     * Diagonal entry A[i][i] of the factored matrix (a variance, or 1 for a correlation matrix).
+     */
+    public double diagonal(int i) {
+        int r = row(i);
+        double sum = 0.0;
+        for (int k = 0; k <= i; k++) {
+            sum += packed[r + k] * packed[r + k];
+        }
+        return sum;
+    }
+
+    /**
+     * Sum of all entries of A = L * L^T, i.e. the variance of the sum of the N variables
+     * (in units of sigma^2 for a correlation matrix). Equals the squared norm of L^T * 1; O(N^2).
+     */
+    public double sumOfEntries() {
+        double[] column = new double[n];
+        int idx = 0;
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k <= i; k++) {
+                column[k] += packed[idx++];
+            }
+        }
+        double sum = 0.0;
+        for (double c : column) sum += c * c;
+        return sum;
+    }
+
+    // Offset of row i in the packed array; packedLength has checked that every offset fits an int.
+    private static int row(int i) {
+        return (int) ((long) i * (i + 1) / 2);
+    }
+
+    private static int packedLength(int n) {
+        long length = (long) n * (n + 1) / 2;
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("A " + n + " x " + n + " factor does not fit in one array.");
+        }
+        return (int) length;
+    }
+
+    /**
+     * Computes out = L * z without allocating. z and out must be distinct arrays of length N.
+     */
+    public void multiply(double[] z, double[] out) {
+        int idx = 0;
+        for (int i = 0; i < n; i++) {
+            double sum = 0.0;
+            for (int j = 0; j <= i; j++) {
+                sum += packed[idx++] * z[j];
+            }
+            out[i] = sum;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package inventory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * CompiledNetwork.java
+ * A Topology prepared once for a scenario: its base stocks sized by Topology.baseStocks, and the
+ * NetworkEngines that run it. Compiling the flat schedule is O(nodes + lanes), so engines are kept
+ * in a pool and reused by later replications; the pool only grows to the number of replications
+ * running at once, i.e. one engine per worker thread.
+ */
+final class CompiledNetwork {
+
+    private final Topology topology;
+    private final int[] baseStocks;
+    private final Queue<NetworkEngine> idle = new ConcurrentLinkedQueue<>(); // Engines not running now.
+
+    CompiledNetwork(Topology topology, Scenario sc) {
+        this.topology = topology;
+        this.baseStocks = topology.baseStocks(sc);
+    }
+
+    Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Runs one replication with the scenario's sized base stocks.
+     */
+    Metrics run(DemandSource demand, Scenario sc) {
+        return run(demand, baseStocks, sc);
+    }
+
+    /**
+     * Runs one replication with the given base stocks, indexed by topology node. Safe to call from
+     * several threads at once: each call borrows an engine of its own.
+     */
+    Metrics run(DemandSource demand, int[] levels, Scenario sc) {
+        NetworkEngine engine = idle.poll();
+        if (engine == null) {
+            engine = new NetworkEngine(topology);
+        }
+        try {
+            engine.loadBaseStocks(levels);
+            return engine.run(demand, sc);
+        } finally {
+            idle.offer(engine);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package inventory;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * CorrelatedDemandSource.java
+ * Multivariate Normal retailer demand truncated at 0.
+ * The general path applies a Cholesky factor of the correlation matrix to N independent
+ * standard normals (O(N^2) per day). The equicorrelated path, used when every pair shares
+ * one rho >= 0, uses the equivalent one-factor form X_i = sqrt(rho)*Z_0 + sqrt(1-rho)*Z_i,
+ * which is O(N) per day and needs no matrix at all.
+ * fillDay allocates nothing; all buffers are sized once in the constructor.
+ */
+public class CorrelatedDemandSource implements DemandSource {
+
+    private final SplittableRandom[] rngs;   // One stream per retailer.
+    private final SplittableRandom commonRng; // Shared-factor stream (equicorrelated path only).
+    private final NormalSampler sampler;
+    private final double[] mean;
+    private final double[] sigma;
+    private final CholeskyFactor factor;     // null on the equicorrelated path.
+    private final double loadCommon;         // sqrt(rho)
+    private final double loadOwn;            // sqrt(1 - rho)
+    private final double[] z;
+    private final double[] x;
+
+    private CorrelatedDemandSource(long replicationSeed, double[] mean, double[] sigma,
+                                   CholeskyFactor factor, double rho, NormalSampler sampler) {
+        int n = mean.length;
+        if (sigma.length != n || (factor != null && factor.size() != n)) {
+            throw new IllegalArgumentException("Means, sigmas and correlation must all have N entries.");
+        }
+        this.rngs = RandomStreams.retailerStreams(replicationSeed, n);
+        this.commonRng = RandomStreams.retailerStream(replicationSeed, n);
+        this.sampler = sampler;
+        this.mean = mean.clone();
+        this.sigma = sigma.clone();
+        this.factor = factor;
+        this.loadCommon = factor == null ? Math.sqrt(rho) : 0.0;
+        this.loadOwn = factor == null ? Math.sqrt(1.0 - rho) : 0.0;
+        this.z = new double[n];
+        this.x = factor == null ? null : new double[n];
+    }
+
+    /**
+     * Demand with per-retailer means and sigmas and the correlation matrix factored in corrFactor.
+     */
+    public static CorrelatedDemandSource withCorrelation(long replicationSeed, double[] mean, double[] sigma,
+                                                         CholeskyFactor corrFactor) {
+        return withCorrelation(replicationSeed, mean, sigma, corrFactor, Params.NORMAL_SAMPLER);
+    }
+
+    public static CorrelatedDemandSource withCorrelation(long replicationSeed, double[] mean, double[] sigma,
+                                                         CholeskyFactor corrFactor, NormalSampler sampler) {
+        return new CorrelatedDemandSource(replicationSeed, mean, sigma, corrFactor, 0.0, sampler);
+    }
+
+    /**
+     * Demand whose covariance matrix is factored in covFactor (sigmas are already inside the factor).
+     */
+    public static CorrelatedDemandSource withCovariance(long replicationSeed, double[] mean, CholeskyFactor covFactor) {
+        return withCovariance(replicationSeed, mean, covFactor, Params.NORMAL_SAMPLER);
+    }
+
+    public static CorrelatedDemandSource withCovariance(long replicationSeed, double[] mean, CholeskyFactor covFactor,
+                                                        NormalSampler sampler) {
+        double[] unit = new double[mean.length];
+        Arrays.fill(unit, 1.0);
+        return new CorrelatedDemandSource(replicationSeed, mean, unit, covFactor, 0.0, sampler);
+    }
+
+    /**
+     * Identical retailers with one pairwise correlation rho (the model behind the risk-pooling formula).
+     */
+    public static CorrelatedDemandSource equicorrelated(long replicationSeed, int nRetailers, double mu,
+                                                        double sigma, double rho) {
+        return equicorrelated(replicationSeed, nRetailers, mu, sigma, rho, Params.NORMAL_SAMPLER);
+    }
+
+    public static CorrelatedDemandSource equicorrelated(long replicationSeed, int nRetailers, double mu,
+                                                        double sigma, double rho, NormalSampler sampler) {
+        if (rho > 1.0 || rho < -1.0 / Math.max(1, nRetailers - 1)) {
+            throw new IllegalArgumentException("rho is outside the valid range for " + nRetailers + " retailers.");
+        }
+        double[] means = new double[nRetailers];
+        double[] sigmas = new double[nRetailers];
+        Arrays.fill(means, mu);
+        Arrays.fill(sigmas, sigma);
+        if (rho < 0.0) {
+            // The one-factor form needs rho >= 0; fall back to the general factorization. This is O(N^3)
+            // per call, so replication loops should factor once and use withCorrelation (as Simulation does).
+            CholeskyFactor f = CholeskyFactor.factor(CholeskyFactor.equicorrelation(nRetailers, rho));
+            return new CorrelatedDemandSource(replicationSeed, means, sigmas, f, 0.0, sampler);
+        }
+        return new CorrelatedDemandSource(replicationSeed, means, sigmas, null, rho, sampler);
+    }
+
+    @Override
+    public void fillDay(int day, int[] out) {
+        int n = z.length;
+        for (int i = 0; i < n; i++) {
+            z[i] = sampler.next(rngs[i]);
+        }
+        if (factor == null) {
+            double common = loadCommon * sampler.next(commonRng);
+            for (int i = 0; i < n; i++) {
+                out[i] = NormalDemandSource.toDemand(mean[i] + sigma[i] * (common + loadOwn * z[i]));
+            }
+        } else {
+            factor.multiply(z, x);
+            for (int i = 0; i < n; i++) {
+                out[i] = NormalDemandSource.toDemand(mean[i] + sigma[i] * x[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package inventory;
+
+/**
+ * CostAccrual.java
+ * How the object engine books holding and backorder costs (see CostLedger).
+ * Both modes produce the same Metrics; the event engine always accrues lazily.
+ */
+public enum CostAccrual {
+    DAILY, // Every node's level times its rate, every day (accrueDailyCosts).
+    LAZY   // Level times elapsed days, booked only when a node's level changes.
+}
@@ -0,0 +1,48 @@
+package inventory;
+
+import java.util.Arrays;
+
+/**
+ * CostLedger.java
+ * Lazy accrual of holding and backorder costs. Instead of booking every node's end-of-day cost
+ * every day, a node's level times the number of days it stayed unchanged is booked just before
+ * the level changes (accrueTo), and once more for the days left at the end of the run. Metrics
+ * sums units * rate in fixed point, so the totals equal daily accrual exactly. Nodes are dense
+ * indices 0 .. nodes - 1; the caller passes the levels, so any state layout can use it.
+ */
+public class CostLedger {
+
+    private final int[] accruedThrough; // Last day whose end-of-day cost has been booked, per node.
+    private double holding;
+    private double backorderCost;
+
+    /**
+     * Constructor for a ledger over the given number of nodes.
+     */
+    public CostLedger(int nodes) {
+        this.accruedThrough = new int[nodes];
+    }
+
+    /**
+     * Starts a run at day 0 with the given per-unit daily rates.
+     */
+    public void reset(double holding, double backorderCost) {
+        this.holding = holding;
+        this.backorderCost = backorderCost;
+        Arrays.fill(accruedThrough, 0);
+    }
+
+    /**
+     * Books end-of-day costs for every day before 'day' that has not been booked yet, at the node's
+     * current levels. Must run before the node's level changes on 'day'; calling it again the same
+     * day books nothing. After the last day D, accrueTo(node, D + 1, ...) closes the node's account.
+     */
+    public void accrueTo(int node, int day, int onHand, int backorder, Metrics metrics) {
+        int days = day - 1 - accruedThrough[node];
+        if (days > 0) {
+            metrics.addHoldingCost((long) onHand * days, holding);
+            metrics.addBackorderCost((long) backorder * days, backorderCost);
+            accruedThrough[node] = day - 1;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package inventory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * CsvResultSink.java
+ * Writes one CSV row per design point and flushes it immediately, so a long sweep can be
+ * monitored (and survives being interrupted) without keeping results in memory. Closing the
+ * sink closes the writer only if the sink owns it; a borrowed writer such as one wrapping
+ * System.out is just flushed.
+ */
+public class CsvResultSink implements ResultSink {
+
+    // Per-replication statistics (RunningStat) appended after the summary columns, for each design.
+    private static final String[] METRICS = {"cost", "fill_rate", "holding", "backorder", "transport", "orders"};
+    private static final String[] STATS = {"mean", "var", "min", "max", "hw"};
+
+    private static final String HEADER = "index,name,retailers,days,replications,rho,sigma,holdingCost,"
+        + "leadMfgToCw,leadCwToRetailer,leadMfgToRetailer,"
+        + "central_cost_per_day,central_fill_rate,central_holding_per_day,"
+        + "decentral_cost_per_day,decentral_fill_rate,decentral_holding_per_day,"
+        + "diff_cost_per_day,diff_half_width"
+        + statColumns("central") + statColumns("decentral");
+
+    private final Writer out;
+    private final boolean ownsWriter;
+
+    public CsvResultSink(Writer out) {
+        this(out, true);
+    }
+
+    public CsvResultSink(Writer out, boolean ownsWriter) {
+        this.out = out;
+        this.ownsWriter = ownsWriter;
+        write(HEADER);
+    }
+
+    @Override
+    public void accept(int index, ScenarioResult result) {
+        Scenario s = result.getScenario();
+        SummaryMetrics c = result.getCentralized();
+        SummaryMetrics d = result.getDecentralized();
+        PairedDifference diff = result.getDifference();
+        write(String.format(Locale.ROOT, "%d,%s,%d,%d,%d,%.4f,%.4f,%.4f,%d,%d,%d,%.4f,%.5f,%.4f,%.4f,%.5f,%.4f,%.4f,%.4f",
+            index, quote(s.getName()), s.getRetailers(), s.getDays(), diff.getCount(), s.getRho(), s.getDemandSigma(),
+            s.getHoldingCost(), s.getLeadMfgToCw(), s.getLeadCwToRetailer(), s.getLeadMfgToRetailer(),
+            c.totalCostPerDay, c.fillRate, c.avgHoldingCostPerDay,
+            d.totalCostPerDay, d.fillRate, d.avgHoldingCostPerDay,
+            diff.meanDiff, diff.halfWidth) + statValues(c) + statValues(d));
+    }
+
+    /**
+     * Quotes a text field per RFC 4180 when it holds a comma, a double quote or a line break.
+     */
+    static String quote(String field) {
+        if (field == null) {
+            return "";
+        }
+        for (int i = 0; i < field.length(); i++) {
+            char ch = field.charAt(i);
+            if (ch == ',' || ch == '"' || ch == '\r' || ch == '\n') {
+                return '"' + field.replace("\"", "\"\"") + '"';
+            }
+        }
+        return field;
+    }
+
+    private static String statColumns(String design) {
+        StringBuilder sb = new StringBuilder();
+        for (String metric : METRICS) {
+            for (String stat : STATS) {
+                sb.append(',').append(design).append('_').append(metric).append('_').append(stat);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String statValues(SummaryMetrics m) {
+        StringBuilder sb = new StringBuilder();
+        for (RunningStat r : new RunningStat[] {m.totalCost, m.fillRates, m.holding, m.backorder, m.transport, m.orders}) {
+            sb.append(String.format(Locale.ROOT, ",%.6g,%.6g,%.6g,%.6g,%.6g",
+                r.getMean(), r.getVariance(), r.getMin(), r.getMax(), r.getHalfWidth()));
+        }
+        return sb.toString();
+    }
+
+    private synchronized void write(String line) {
+        try {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (ownsWriter) {
+            out.close();
+        } else {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package inventory;
+
+import java.util.Arrays;
+
+/**
+ * CwOrderBook.java
+ * The CW's book of retailer orders it has not shipped yet, and the rationing of its stock among them.
+ * Retailers book their orders during the day; allocate() then ships from the CW's on-hand stock.
+ * If the stock covers everything owed, every order ships in full. If not, the AllocationPolicy
+ * decides who gets what, and the rest stays owed (a CW backorder) until later stock arrives:
+ *  - FIFO: open orders are kept in a ring in booking order and served from the oldest.
+ *  - PROPORTIONAL: every retailer receives the same fraction of what it is owed.
+ *  - BALANCED: water-filling on the retailers' inventory positions (excluding what the CW owes
+ *    them): stock raises the lowest positions first, up to a common level found by bisection.
+ * Units left over by integer rounding go one each to the retailers in turn, starting after the
+ * one that got the previous leftover, so no retailer is favoured by its index.
+ * Every call is O(N); BALANCED makes at most 64 O(N) passes. Retailers are indexed 0 .. N-1.
+ * A book is reusable across replications but not thread-safe.
+ */
+public final class CwOrderBook {
+
+    private final int n;
+    private final int[] owed;        // Units ordered by retailer i and not shipped yet.
+    private final int[] shipped;     // Units shipped to retailer i by the last allocate().
+    private final int[] position;    // BALANCED: retailer inventory positions, set before allocate().
+    private int totalOwed;
+    private AllocationPolicy policy = AllocationPolicy.FIFO;
+    private int cursor;              // Retailer that is offered the next leftover unit.
+
+    // FIFO: open orders in booking order, as a ring of (retailer, units) pairs.
+    private int[] queueRetailer;
+    private int[] queueQty;
+    private int head;
+    private int size;
+
+    /**
+     * Constructor for an empty book for nRetailers retailers.
+     */
+    public CwOrderBook(int nRetailers) {
+        this.n = nRetailers;
+        this.owed = new int[n];
+        this.shipped = new int[n];
+        this.position = new int[n];
+        this.queueRetailer = new int[Math.max(16, 2 * n)];
+        this.queueQty = new int[queueRetailer.length];
+    }
+
+    /**
+     * Empties the book and selects the rationing policy for the next run.
+     */
+    public void reset(AllocationPolicy policy) {
+        this.policy = policy;
+        Arrays.fill(owed, 0);
+        Arrays.fill(shipped, 0);
+        totalOwed = 0;
+        cursor = 0;
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Books an order of qty units from the given retailer.
+     */
+    public void order(int retailer, int qty) {
+        if (qty <= 0) {
+            throw new IllegalArgumentException("Order quantity must be positive.");
+        }
+        owed[retailer] += qty;
+        totalOwed += qty;
+        if (policy == AllocationPolicy.FIFO) {
+            if (size == queueRetailer.length) {
+                growQueue();
+            }
+            int tail = (head + size) % queueRetailer.length;
+            queueRetailer[tail] = retailer;
+            queueQty[tail] = qty;
+            size++;
+        }
+    }
+
+    public int getOwed(int retailer) {
+        return owed[retailer];
+    }
+
+    public int getTotalOwed() {
+        return totalOwed;
+    }
+
+    /**
+     * True if allocate(available) will read the retailer positions, which must then be set first.
+     */
+    public boolean needsPositions(int available) {
+        return policy == AllocationPolicy.BALANCED && available > 0 && totalOwed > available;
+    }
+
+    public void setPosition(int retailer, int inventoryPosition) {
+        position[retailer] = inventoryPosition;
+    }
+
+    /**
+     * Ships as much of what is owed as 'available' units allow and returns the total shipped.
+     * The quantity for each retailer is then read with getShipped.
+     */
+    public int allocate(int available) {
+        Arrays.fill(shipped, 0);
+        if (totalOwed == 0 || available <= 0) {
+            return 0;
+        }
+        if (totalOwed <= available) {
+            // Enough stock: every open order ships in full.
+            int total = totalOwed;
+            System.arraycopy(owed, 0, shipped, 0, n);
+            Arrays.fill(owed, 0);
+            totalOwed = 0;
+            head = 0;
+            size = 0;
+            return total;
+        }
+        switch (policy) {
+            case FIFO: rationFifo(available); break;
+            case PROPORTIONAL: rationProportional(available); break;
+            default: rationBalanced(available); break;
+        }
+        for (int i = 0; i < n; i++) {
+            owed[i] -= shipped[i];
+        }
+        totalOwed -= available;
+        return available;
+    }
+
+    public int getShipped(int retailer) {
+        return shipped[retailer];
+    }
+
+    // --- Rationing (only called when totalOwed > available > 0; each ships exactly 'available') ---
+
+    private void rationFifo(int available) {
+        int left = available;
+        while (left > 0) {
+            int qty = queueQty[head];
+            int s = Math.min(qty, left);
+            shipped[queueRetailer[head]] += s;
+            left -= s;
+            if (s == qty) {
+                head = (head + 1) % queueRetailer.length;
+                size--;
+            } else {
+                queueQty[head] = qty - s; // The rest of this order stays at the front.
+            }
+        }
+    }
+
+    private void rationProportional(int available) {
+        int given = 0;
+        for (int i = 0; i < n; i++) {
+            shipped[i] = (int) ((long) available * owed[i] / totalOwed);
+            given += shipped[i];
+        }
+        // Each retailer lost less than one unit to rounding, so every owed retailer can take one more.
+        shareLeftover(available - given, Long.MAX_VALUE);
+    }
+
+    private void rationBalanced(int available) {
+        // filled(level) = units needed to raise every position below 'level' up to it (capped at what
+        // is owed); it never decreases, filled(lo) = 0 <= available < totalOwed = filled(hi).
+        long lo = Long.MAX_VALUE;
+        long hi = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (owed[i] > 0) {
+                lo = Math.min(lo, position[i]);
+                hi = Math.max(hi, (long) position[i] + owed[i]);
+            }
+        }
+        while (hi - lo > 1) {
+            long mid = lo + (hi - lo) / 2;
+            if (filled(mid) <= available) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        int given = 0;
+        for (int i = 0; i < n; i++) {
+            shipped[i] = raise(i, lo);
+            given += shipped[i];
+        }
+        // Fewer units are left than retailers that would still rise at level lo + 1.
+        shareLeftover(available - given, lo);
+    }
+
+    private long filled(long level) {
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += raise(i, level);
+        }
+        return sum;
+    }
+
+    private int raise(int i, long level) {
+        return (int) Math.max(0, Math.min(level - position[i], owed[i]));
+    }
+
+    /**
+     * Gives one more unit to each of 'leftover' retailers that are still owed stock and whose
+     * position is at most 'level', taking them in turn from the cursor.
+     */
+    private void shareLeftover(int leftover, long level) {
+        for (int k = 0; leftover > 0 && k < n; k++) {
+            int i = (cursor + k) % n;
+            if (shipped[i] < owed[i] && position[i] <= level) {
+                shipped[i]++;
+                leftover--;
+                cursor = (i + 1) % n;
+            }
+        }
+    }
+
+    private void growQueue() {
+        int[] r = new int[queueRetailer.length * 2];
+        int[] q = new int[r.length];
+        for (int k = 0; k < size; k++) {
+            int from = (head + k) % queueRetailer.length;
+            r[k] = queueRetailer[from];
+            q[k] = queueQty[from];
+        }
+        queueRetailer = r;
+        queueQty = q;
+        head = 0;
+    }
+}
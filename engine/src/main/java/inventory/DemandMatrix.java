@@ -0,0 +1,130 @@
+package inventory;
+
+import java.util.Arrays;
+
+/**
+ * DemandMatrix.java
+ * A pre-generated T_DAYS x N_RETAILERS block of demand for one replication.
+ * Both designs can replay it, so they face exactly the same customers (common random numbers).
+ * For the event engine it also lists each retailer's non-zero demands; that index is built on
+ * first use and holds two ints per non-zero entry (and per retailer), so it is only asked for
+ * when nonZeroCount shows the demand to be sparse.
+ */
+public class DemandMatrix implements SparseDemandSource {
+
+    private final int[][] demand;     // demand[day - 1][retailer]
+    private volatile Entries entries; // Non-zero demands by retailer, for SparseDemandSource.
+    private volatile long nonZero = -1;
+
+    private DemandMatrix(int[][] demand) {
+        this.demand = demand;
+    }
+
+    /**
+     * Draws every day of the horizon from the given source up front.
+     */
+    public static DemandMatrix generate(DemandSource source, int days, int nRetailers) {
+        int[][] demand = new int[days][nRetailers];
+        source.fillDays(1, demand);
+        return new DemandMatrix(demand);
+    }
+
+    public int getDays() {
+        return demand.length;
+    }
+
+    public int get(int day, int retailer) {
+        return demand[day - 1][retailer];
+    }
+
+    @Override
+    public long nonZeroCount() {
+        long count = nonZero;
+        if (count < 0) {
+            count = 0;
+            for (int[] row : demand) {
+                for (int q : row) {
+                    if (q > 0) count++;
+                }
+            }
+            nonZero = count;
+        }
+        return count;
+    }
+
+    @Override
+    public int first(int retailer) {
+        return index().start[retailer];
+    }
+
+    @Override
+    public int dayOf(int entry) {
+        return index().pairs[2 * entry];
+    }
+
+    @Override
+    public int demandOf(int entry) {
+        return index().pairs[2 * entry + 1];
+    }
+
+    /**
+     * The non-zero entries, built on first use. Both designs of a replication may share the matrix,
+     * so the index is published once, fully built.
+     */
+    private Entries index() {
+        Entries e = entries;
+        if (e == null) {
+            synchronized (this) {
+                e = entries;
+                if (e == null) {
+                    e = new Entries(demand);
+                    entries = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Unlike a live generator, a matrix can be replayed any number of times and in any order.
+     */
+    @Override
+    public void fillDay(int day, int[] out) {
+        System.arraycopy(demand[day - 1], 0, out, 0, out.length);
+    }
+
+    /**
+     * Every retailer's non-zero demands in day order, each retailer's followed by an end entry of
+     * day 0. Counted, then listed, in two passes over the rows. An entry's day and demand are
+     * stored side by side, as they are read together.
+     */
+    private static final class Entries {
+        final int[] start;   // Retailer i's entries begin at start[i].
+        final int[] pairs;   // Entry k: day pairs[2k], demand pairs[2k + 1].
+
+        Entries(int[][] rows) {
+            int n = rows.length == 0 ? 0 : rows[0].length;
+            start = new int[n + 1];
+            for (int[] row : rows) {
+                for (int i = 0; i < n; i++) {
+                    if (row[i] > 0) start[i + 1]++;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                start[i + 1] += start[i] + 1;   // One end entry per retailer.
+            }
+            pairs = new int[2 * start[n]];     // End entries stay (0, 0).
+            int[] next = Arrays.copyOf(start, n);
+            for (int d = 0; d < rows.length; d++) {
+                int[] row = rows[d];
+                for (int i = 0; i < n; i++) {
+                    if (row[i] > 0) {
+                        int k = next[i]++;
+                        pairs[2 * k] = d + 1;
+                        pairs[2 * k + 1] = row[i];
+                    }
+                }
+            }
+        }
+    }
+}
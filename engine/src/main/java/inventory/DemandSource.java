@@ -0,0 +1,24 @@
+package inventory;
+
+/**
+ * DemandSource.java
+ * Supplies the daily customer demand of every retailer to a replication.
+ */
+public interface DemandSource {
+
+    /**
+     * Writes each retailer's demand for the given day (1-based) into out[0 .. N-1].
+     * Days are requested in increasing order, once each.
+     */
+    void fillDay(int day, int[] out);
+
+    /**
+     * Writes the demand of days firstDay, firstDay + 1, ... into out[0], out[1], ...; by default one
+     * fillDay per row. Sources that can draw a whole block at once override it.
+     */
+    default void fillDays(int firstDay, int[][] out) {
+        for (int d = 0; d < out.length; d++) {
+            fillDay(firstDay + d, out[d]);
+        }
+    }
+}
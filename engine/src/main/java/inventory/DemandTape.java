@@ -0,0 +1,149 @@
+package inventory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntFunction;
+
+/**
+ * DemandTape.java
+ * An R x T x N block of demand stored once in a binary file and read back through memory maps,
+ * so any number of scenarios, both designs and later runs replay exactly the same customers.
+ *
+ * Layout (little-endian): a 64-byte header (magic "INVTAPE1", version, replications, days,
+ * retailers, scenario id, master seed), then replication 1 day 1 retailers 0..N-1, day 2, ...,
+ * replication 2, ... as 32-bit ints. Each replication is mapped separately, so tapes larger than
+ * 2 GB are fine as long as one replication (T x N x 4 bytes) is below it. The mappings are
+ * read-only and shared; every DemandSource handed out reads them through its own view.
+ */
+public final class DemandTape {
+
+    private static final long MAGIC = 0x3145504154564e49L; // "INVTAPE1" read as a little-endian long.
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+
+    private final int replications;
+    private final int days;
+    private final int retailers;
+    private final int scenarioId;
+    private final long masterSeed;
+    private final MappedByteBuffer[] reps; // reps[r - 1] maps replication r.
+
+    private DemandTape(int replications, int days, int retailers, int scenarioId, long masterSeed,
+                       MappedByteBuffer[] reps) {
+        this.replications = replications;
+        this.days = days;
+        this.retailers = retailers;
+        this.scenarioId = scenarioId;
+        this.masterSeed = masterSeed;
+        this.reps = reps;
+    }
+
+    /**
+     * Writes replications 1 .. sc.getReplicationBudget() of the given demand, each sc.getDays() x sc.getRetailers(),
+     * so a sequential run of the scenario never asks for a replication the tape lacks.
+     */
+    public static void write(Path file, Scenario sc, long masterSeed, IntFunction<DemandSource> demand) throws IOException {
+        int n = sc.getRetailers();
+        int replications = sc.getReplicationBudget();
+        if ((long) sc.getDays() * n * Integer.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("One replication of this scenario does not fit in a 2 GB mapping.");
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(VERSION).putInt(replications).putInt(sc.getDays())
+                  .putInt(n).putInt(sc.getId()).putLong(masterSeed);
+            header.clear();
+            writeFully(ch, header);
+
+            int[] day = new int[n];
+            ByteBuffer buf = ByteBuffer.allocateDirect(n * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            IntBuffer ints = buf.asIntBuffer();
+            for (int rep = 1; rep <= replications; rep++) {
+                DemandSource source = demand.apply(rep);
+                for (int d = 1; d <= sc.getDays(); d++) {
+                    source.fillDay(d, day);
+                    ints.clear();
+                    ints.put(day);
+                    buf.clear();
+                    writeFully(ch, buf);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps an existing tape read-only. The file can be closed (or reopened by others) afterwards.
+     */
+    public static DemandTape open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && ch.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends.
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getLong() != MAGIC) {
+                throw new IOException(file + " is not a demand tape.");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException(file + ": unsupported demand tape version " + version + ".");
+            }
+            int replications = header.getInt();
+            int days = header.getInt();
+            int retailers = header.getInt();
+            int scenarioId = header.getInt();
+            long masterSeed = header.getLong();
+
+            long repBytes = (long) days * retailers * Integer.BYTES;
+            if (ch.size() != HEADER_BYTES + replications * repBytes) {
+                throw new IOException(file + " is truncated or has trailing data.");
+            }
+            MappedByteBuffer[] reps = new MappedByteBuffer[replications];
+            for (int r = 0; r < replications; r++) {
+                reps[r] = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + r * repBytes, repBytes);
+            }
+            return new DemandTape(replications, days, retailers, scenarioId, masterSeed, reps);
+        }
+    }
+
+    /**
+     * Demand of replication 'rep' (1-based); each call returns an independent reader over the shared map.
+     */
+    public DemandSource replication(int rep) {
+        if (rep < 1 || rep > replications) {
+            throw new IllegalArgumentException("The demand tape holds replications 1.." + replications + ", not " + rep + ".");
+        }
+        IntBuffer ints = reps[rep - 1].duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        return (day, out) -> ints.get((day - 1) * retailers, out, 0, retailers);
+    }
+
+    /**
+     * Throws unless the tape can supply every day and retailer of every replication the scenario may run.
+     */
+    public void checkCovers(Scenario sc) {
+        if (sc.getRetailers() != retailers || sc.getDays() > days || sc.getReplicationBudget() > replications) {
+            throw new IllegalArgumentException(String.format(
+                "The demand tape has %d replications x %d retailers x %d days; the scenario needs up to %d x %d x %d.",
+                replications, retailers, days, sc.getReplicationBudget(), sc.getRetailers(), sc.getDays()));
+        }
+    }
+
+    public int getReplications() { return replications; }
+    public int getDays() { return days; }
+    public int getRetailers() { return retailers; }
+    public int getScenarioId() { return scenarioId; }
+    public long getMasterSeed() { return masterSeed; }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package inventory;
+
+/**
+ * DemandTransform.java
+ * Turns blocks of standard normal variates into Normal(mu, sigma) demands rounded to integers
+ * and truncated at 0: out[i] = max(0, round(z[i] * sigma + mu)), exactly the values
+ * NormalDemandSource.toDemand gives (for any demand that fits in an int).
+ * best() returns the Vector API implementation when the JVM runs with
+ * --add-modules jdk.incubator.vector, and the scalar loop otherwise.
+ */
+public interface DemandTransform {
+
+    /**
+     * Writes the demands for z[from .. to - 1] into out[from .. to - 1].
+     */
+    void toDemand(double[] z, double mu, double sigma, int[] out, int from, int to);
+
+    /**
+     * The plain loop over NormalDemandSource.toDemand.
+     */
+    static DemandTransform scalar() {
+        return ScalarDemandTransform.INSTANCE;
+    }
+
+    /**
+     * The fastest implementation this JVM can load.
+     */
+    static DemandTransform best() {
+        return ScalarDemandTransform.BEST;
+    }
+}
@@ -0,0 +1,13 @@
+package inventory;
+
+/**
+ * Engine.java
+ * Selects which implementation of the daily cycle runs the replications.
+ * All engines produce the same Metrics for the same demand.
+ */
+public enum Engine {
+    OBJECT, // One NodeState object per location (reference implementation in Simulation).
+    ARRAY,  // Struct-of-arrays kernel (ArrayKernel), for large retailer counts.
+    EVENT,  // Discrete-event engine (EventEngine), skips idle node-days.
+    NETWORK // General topology engine (NetworkEngine) running the designs as networks.
+}
@@ -0,0 +1,313 @@
+package inventory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * EventEngine.java
+ * Event-driven version of the replications. Instead of visiting every node every day,
+ * a node is only touched when something happens to it:
+ *   ARRIVAL - a shipment reaches the node (then its backorders are cleared),
+ *   DEMAND  - a retailer sees non-zero customer demand,
+ *   REVIEW  - the node checks its inventory position and orders up to its base stock,
+ *   ALLOCATE - the CW ships what it owes retailers from its stock, then reviews.
+ * Sparse demand from a SparseDemandSource (e.g. a DemandMatrix, below SPARSE_RATIO) is read
+ * per retailer: each retailer waits in a calendar bucket for its next non-zero demand, and
+ * handling that demand files it under the following one, so retailers without demand are never
+ * visited. Other demand is read a whole day at a time with fillDay and scanned, an O(N) pass per
+ * day. Either way only non-zero demand becomes an event.
+ * A base-stock node's inventory position only drops on demand, so a review is scheduled
+ * after each demand event (plus one initial review per node). In the centralized design a
+ * retailer's review books its order at the CW; the first such order of a day, or a CW arrival
+ * while the CW owes stock, schedules the day's ALLOCATE, which comes after all reviews.
+ * Holding and backorder costs are integrated lazily by a CostLedger: a node's level times the
+ * number of days it stayed unchanged is booked just before the level changes, and once more
+ * at the end.
+ * For the same demand the Metrics equal the time-stepped engines' exactly.
+ * Node 0 is the CW (centralized design only); retailers are nodes 1..N.
+ */
+public class EventEngine {
+
+    static final int ARRIVAL = 0;
+    static final int DEMAND = 1;
+    static final int REVIEW = 2;
+    static final int ALLOCATE = 3;
+
+    // Stepping retailers from demand to demand beats scanning whole days below about 1% non-zero
+    // demand (100k retailers, 365 days); above it the scan's sequential reads win.
+    static final int SPARSE_RATIO = 100;
+
+    private final int n;               // Number of retailers.
+    private final int nodes;           // Retailers plus the CW slot.
+    private final int cap;             // Ring length for pending arrivals.
+    private final int[] onHand;
+    private final int[] backorder;
+    private final int[] baseStock;
+    private final int[] inTransit;
+    private final int[] pipeline;      // Node k, arrival day d: pipeline[k * cap + d % cap].
+    private final int[] pendingDemand; // Demand of the DEMAND event queued for today.
+    private final int[] demandToday;
+    private final EventQueue queue;
+    private final CwOrderBook cwBook;  // Retailer orders the CW has not shipped yet (its backorders).
+    private final CostLedger ledger;   // Lazy holding and backorder costs, per node.
+    private int allocationDay;         // Day of the last scheduled ALLOCATE event.
+    private SparseDemandSource sparse; // Per-retailer demand for this run, or null to scan whole days.
+    private int[] dueHead;             // First retailer whose next demand falls on day d, or 0.
+    private final int[] dueNext;       // Next retailer in the same day's bucket, or 0.
+    private final int[] dueEntry;      // The sparse source's entry of each retailer's next demand.
+
+    // Per-run routing: which node supplies whom, at what lead time and cost.
+    private boolean centralized;
+    private Scenario sc;
+    private int retailerLead;
+    private double retailerCost;
+
+    /**
+     * Constructor for an engine with nRetailers retailers and lead times up to maxLead days.
+     */
+    public EventEngine(int nRetailers, int maxLead) {
+        if (maxLead < 1) {
+            throw new IllegalArgumentException("Lead time must be at least one day.");
+        }
+        this.n = nRetailers;
+        this.nodes = nRetailers + 1;
+        this.cap = maxLead + 1;
+        this.onHand = new int[nodes];
+        this.backorder = new int[nodes];
+        this.baseStock = new int[nodes];
+        this.inTransit = new int[nodes];
+        this.pipeline = new int[nodes * cap];
+        this.pendingDemand = new int[nodes];
+        this.dueNext = new int[nodes];
+        this.dueEntry = new int[nodes];
+        this.demandToday = new int[n];
+        this.queue = new EventQueue(nodes * 2);
+        this.cwBook = new CwOrderBook(n);
+        this.ledger = new CostLedger(nodes);
+    }
+
+    /**
+     * Copies the base-stock levels computed on the object model (cw may be null).
+     */
+    public void loadBaseStocks(List<NodeState> retailers, NodeState cw) {
+        if (retailers.size() != n) {
+            throw new IllegalArgumentException("Engine holds " + n + " retailers, got " + retailers.size() + ".");
+        }
+        baseStock[0] = cw == null ? 0 : cw.getBaseStock();
+        for (int i = 0; i < n; i++) {
+            baseStock[i + 1] = retailers.get(i).getBaseStock();
+        }
+    }
+
+    // --- Replications ---
+
+    public Metrics runCentralized(DemandSource demand, Scenario sc) {
+        checkLead(sc.getLeadMfgToCw());
+        checkLead(sc.getLeadCwToRetailer());
+        this.centralized = true;
+        this.retailerLead = sc.getLeadCwToRetailer();
+        this.retailerCost = sc.getTransportOutbound();
+        return run(demand, sc);
+    }
+
+    public Metrics runDecentralized(DemandSource demand, Scenario sc) {
+        checkLead(sc.getLeadMfgToRetailer());
+        this.centralized = false;
+        this.retailerLead = sc.getLeadMfgToRetailer();
+        this.retailerCost = sc.getTransportDirect();
+        return run(demand, sc);
+    }
+
+    private Metrics run(DemandSource demand, Scenario sc) {
+        this.sc = sc;
+        reset();
+        Metrics metrics = new Metrics();
+        int first = centralized ? 0 : 1;
+        for (int k = first; k < nodes; k++) {
+            queue.push(1, REVIEW, k);
+        }
+        sparse = null;
+        if (demand instanceof SparseDemandSource) {
+            SparseDemandSource s = (SparseDemandSource) demand;
+            if (s.nonZeroCount() * SPARSE_RATIO <= (long) n * sc.getDays()) sparse = s;
+        }
+        if (sparse != null) {
+            if (dueHead == null || dueHead.length < sc.getDays() + 1) {
+                dueHead = new int[sc.getDays() + 1];
+            }
+            Arrays.fill(dueHead, 0);
+            for (int i = 0; i < n; i++) {
+                scheduleDemand(i + 1, sparse.first(i));
+            }
+        }
+
+        for (int day = 1; day <= sc.getDays(); day++) {
+            if (sparse != null) {
+                // Only the retailers filed under today are touched.
+                for (int node = dueHead[day]; node != 0; node = dueNext[node]) {
+                    queue.push(day, DEMAND, node);
+                }
+            } else {
+                // The source only delivers whole days: scan it and queue the non-zero demand.
+                demand.fillDay(day, demandToday);
+                for (int i = 0; i < n; i++) {
+                    if (demandToday[i] > 0) {
+                        pendingDemand[i + 1] = demandToday[i];
+                        queue.push(day, DEMAND, i + 1);
+                    }
+                }
+            }
+            while (!queue.isEmpty() && EventQueue.dayOf(queue.peek()) == day) {
+                long event = queue.poll();
+                int node = EventQueue.nodeOf(event);
+                switch (EventQueue.typeOf(event)) {
+                    case ARRIVAL: arrive(node, day, metrics); break;
+                    case DEMAND: fulfill(node, day, metrics); break;
+                    case REVIEW: review(node, day, metrics); break;
+                    default: shipFromCw(day, metrics); break;
+                }
+            }
+        }
+
+        // Book the days since each node's last change.
+        for (int k = first; k < nodes; k++) {
+            accrueTo(k, sc.getDays() + 1, metrics);
+        }
+        queue.clear();
+        sparse = null;
+        return metrics;
+    }
+
+    /**
+     * Files the retailer under the day of the given entry, unless that is past its last demand or the run.
+     */
+    private void scheduleDemand(int node, int entry) {
+        int day = sparse.dayOf(entry);
+        if (day == 0 || day > sc.getDays()) return;
+        dueEntry[node] = entry;
+        pendingDemand[node] = sparse.demandOf(entry);
+        dueNext[node] = dueHead[day];
+        dueHead[day] = node;
+    }
+
+    // --- Event handlers ---
+
+    private void arrive(int node, int day, Metrics metrics) {
+        accrueTo(node, day, metrics);
+        int slot = node * cap + day % cap;
+        int arrived = pipeline[slot];
+        pipeline[slot] = 0;
+        inTransit[node] -= arrived;
+        int oh = onHand[node] + arrived;
+        int cleared = Math.min(oh, backorder[node]); // New stock fills old customer orders first.
+        onHand[node] = oh - cleared;
+        backorder[node] -= cleared;
+        if (node == 0 && cwBook.getTotalOwed() > 0) {
+            scheduleAllocation(day);
+        }
+    }
+
+    private void fulfill(int node, int day, Metrics metrics) {
+        accrueTo(node, day, metrics);
+        int d = pendingDemand[node];
+        int served = Math.min(onHand[node], d);
+        onHand[node] -= served;
+        backorder[node] += d - served;
+        metrics.addFillImmediate(served);
+        metrics.addBackordersCreated(d - served);
+        metrics.addDemandTotal(d);
+        queue.push(day, REVIEW, node); // Inventory position dropped; review at the end of the day.
+        if (sparse != null) {
+            scheduleDemand(node, dueEntry[node] + 1);
+        }
+    }
+
+    private void review(int node, int day, Metrics metrics) {
+        if (centralized && node > 0) {
+            orderFromCw(node, day, metrics);
+            return;
+        }
+        boolean cw = node == 0;
+        int owedByCw = cw ? cwBook.getTotalOwed() : 0;
+        int qty = baseStock[node] - (onHand[node] + inTransit[node] - backorder[node] - owedByCw);
+        if (qty <= 0) return;
+        int lead = cw ? sc.getLeadMfgToCw() : retailerLead;
+        pipeline[node * cap + (day + lead) % cap] += qty;
+        inTransit[node] += qty;
+        queue.push(day + lead, ARRIVAL, node);
+        metrics.addTransportCost(qty, cw ? sc.getTransportInbound() : retailerCost);
+        metrics.incrementOrdersCount();
+    }
+
+    /**
+     * A retailer's review in the centralized design: the order is booked at the CW, which ships it
+     * in the day's ALLOCATE. Units the CW still owes count as stock on order.
+     */
+    private void orderFromCw(int node, int day, Metrics metrics) {
+        int qty = baseStock[node] - (onHand[node] + inTransit[node] + cwBook.getOwed(node - 1) - backorder[node]);
+        if (qty <= 0) return;
+        cwBook.order(node - 1, qty);
+        metrics.incrementOrdersCount();
+        scheduleAllocation(day);
+    }
+
+    private void scheduleAllocation(int day) {
+        if (allocationDay != day) {
+            queue.push(day, ALLOCATE, 0);
+            allocationDay = day;
+        }
+    }
+
+    /**
+     * The CW ships from its stock (rationed when short); each shipment becomes a retailer arrival.
+     */
+    private void shipFromCw(int day, Metrics metrics) {
+        if (cwBook.needsPositions(onHand[0])) {
+            for (int i = 0; i < n; i++) {
+                cwBook.setPosition(i, onHand[i + 1] + inTransit[i + 1] - backorder[i + 1]);
+            }
+        }
+        int total = cwBook.allocate(onHand[0]);
+        if (total > 0) {
+            accrueTo(0, day, metrics);
+            onHand[0] -= total;
+            for (int i = 0; i < n; i++) {
+                int qty = cwBook.getShipped(i);
+                if (qty > 0) {
+                    int node = i + 1;
+                    pipeline[node * cap + (day + retailerLead) % cap] += qty;
+                    inTransit[node] += qty;
+                    queue.push(day + retailerLead, ARRIVAL, node);
+                    metrics.addTransportCost(qty, retailerCost);
+                }
+            }
+        }
+        review(0, day, metrics); // The day's orders lowered the CW's inventory position.
+    }
+
+    /**
+     * Books the node's end-of-day costs for every day before 'day' not booked yet (see CostLedger).
+     * Must run before the node's level changes on 'day'.
+     */
+    private void accrueTo(int node, int day, Metrics metrics) {
+        ledger.accrueTo(node, day, onHand[node], backorder[node], metrics);
+    }
+
+    private void reset() {
+        System.arraycopy(baseStock, 0, onHand, 0, nodes);
+        if (!centralized) onHand[0] = 0;
+        Arrays.fill(backorder, 0);
+        Arrays.fill(inTransit, 0);
+        Arrays.fill(pipeline, 0);
+        ledger.reset(sc.getHoldingCost(), sc.getBackorderCost());
+        queue.clear();
+        cwBook.reset(sc.getAllocation());
+        allocationDay = 0;
+    }
+
+    private void checkLead(int lead) {
+        if (lead < 1 || lead >= cap) {
+            throw new IllegalArgumentException("Lead time " + lead + " is outside 1.." + (cap - 1) + " for this engine.");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package inventory;
+
+import java.util.Arrays;
+
+/**
+ * EventQueue.java
+ * Future-event list for EventEngine: a binary min-heap of primitive long event keys.
+ * A key packs (day, event type, node) so that plain numeric order is simulation order:
+ * earlier days first, and within a day all arrivals, then all demands, then all reviews,
+ * then the CW's allocation.
+ * Nothing is allocated per event; the heap array only grows when it runs out of room.
+ */
+public class EventQueue {
+
+    private static final int NODE_BITS = 30;
+    private static final int TYPE_BITS = 4;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+    private static final long TYPE_MASK = (1L << TYPE_BITS) - 1;
+
+    private long[] heap;
+    private int size;
+
+    /**
+     * Constructor for an empty queue with room for initialCapacity events.
+     */
+    public EventQueue(int initialCapacity) {
+        this.heap = new long[Math.max(16, initialCapacity)];
+        this.size = 0;
+    }
+
+    public static long key(int day, int type, int node) {
+        if (node < 0 || node > NODE_MASK) {
+            throw new IllegalArgumentException("Node index out of range: " + node);
+        }
+        return ((long) day << (NODE_BITS + TYPE_BITS)) | ((long) type << NODE_BITS) | node;
+    }
+
+    public static int dayOf(long key) {
+        return (int) (key >>> (NODE_BITS + TYPE_BITS));
+    }
+
+    public static int typeOf(long key) {
+        return (int) ((key >>> NODE_BITS) & TYPE_MASK);
+    }
+
+    public static int nodeOf(long key) {
+        return (int) (key & NODE_MASK);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void push(int day, int type, int node) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        long k = key(day, type, node);
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= k) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = k;
+    }
+
+    /**
+     * The earliest event key; only valid when the queue is not empty.
+     */
+    public long peek() {
+        return heap[0];
+    }
+
+    public long poll() {
+        long top = heap[0];
+        long last = heap[--size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (last <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+}
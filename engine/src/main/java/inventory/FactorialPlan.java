@@ -0,0 +1,58 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FactorialPlan.java
+ * Full factorial grid: every combination of the levels of every factor.
+ * Point 'index' is decoded as a mixed-radix number, the last factor varying fastest.
+ */
+public class FactorialPlan implements SweepPlan {
+
+    private final Scenario base;
+    private final String[] keys;
+    private final String[][] levels;
+    private final int size;
+
+    /**
+     * Constructor for the grid over the given factors (Scenario key -> levels as text).
+     */
+    public FactorialPlan(Scenario base, Map<String, List<String>> factorLevels) {
+        this.base = base;
+        this.keys = factorLevels.keySet().toArray(new String[0]);
+        this.levels = new String[keys.length][];
+        long n = 1;
+        for (int f = 0; f < keys.length; f++) {
+            List<String> values = new ArrayList<>(factorLevels.get(keys[f]));
+            if (values.isEmpty()) {
+                throw new IllegalArgumentException("Factor " + keys[f] + " has no levels.");
+            }
+            levels[f] = values.toArray(new String[0]);
+            base.with(keys[f], levels[f][0]); // Fail fast on unknown keys or bad values.
+            n *= levels[f].length;
+        }
+        if (n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid has too many points: " + n);
+        }
+        this.size = (int) n;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Scenario scenario(int index) {
+        Scenario s = base.withName("point-" + index);
+        int rest = index;
+        for (int f = keys.length - 1; f >= 0; f--) {
+            int k = levels[f].length;
+            s = s.with(keys[f], levels[f][rest % k]);
+            rest /= k;
+        }
+        return s;
+    }
+}
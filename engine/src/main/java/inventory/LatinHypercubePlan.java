@@ -0,0 +1,96 @@
+package inventory;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * LatinHypercubePlan.java
+ * Latin-hypercube sample of n points: each factor's range is cut into n equal strata and
+ * every stratum is used exactly once, in an independent random order per factor.
+ * The plan stores one permutation and one jitter per factor and point (O(n * factors)),
+ * and builds each Scenario only when asked for it.
+ */
+public class LatinHypercubePlan implements SweepPlan {
+
+    private final Scenario base;
+    private final String[] keys;
+    private final double[] lo;
+    private final double[] hi;
+    private final boolean[] integer;
+    private final int[][] strata;    // strata[f][point]: which of the n strata the point uses.
+    private final double[][] jitter; // Position inside the stratum, in [0, 1).
+    private final int n;
+
+    /**
+     * Constructor for n points over the given ranges (Scenario key -> {lo, hi} as text).
+     */
+    public LatinHypercubePlan(Scenario base, Map<String, String[]> ranges, int n, long seed) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("A Latin hypercube needs at least one point.");
+        }
+        this.base = base;
+        this.n = n;
+        this.keys = ranges.keySet().toArray(new String[0]);
+        int k = keys.length;
+        this.lo = new double[k];
+        this.hi = new double[k];
+        this.integer = new boolean[k];
+        this.strata = new int[k][n];
+        this.jitter = new double[k][n];
+        SplittableRandom rng = new SplittableRandom(seed);
+        for (int f = 0; f < k; f++) {
+            String[] r = ranges.get(keys[f]);
+            integer[f] = isInteger(r[0]) && isInteger(r[1]);
+            lo[f] = Double.parseDouble(r[0]);
+            hi[f] = Double.parseDouble(r[1]);
+            if (hi[f] < lo[f]) {
+                throw new IllegalArgumentException("Range of " + keys[f] + " is empty.");
+            }
+            base.with(keys[f], format(f, lo[f])); // Fail fast on unknown keys or bad values.
+            int[] perm = strata[f];
+            for (int i = 0; i < n; i++) perm[i] = i;
+            for (int i = n - 1; i > 0; i--) { // Fisher-Yates shuffle.
+                int j = rng.nextInt(i + 1);
+                int t = perm[i]; perm[i] = perm[j]; perm[j] = t;
+            }
+            for (int i = 0; i < n; i++) jitter[f][i] = rng.nextDouble();
+        }
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public Scenario scenario(int index) {
+        Scenario s = base.withName("point-" + index);
+        for (int f = 0; f < keys.length; f++) {
+            double u = (strata[f][index] + jitter[f][index]) / n;
+            String value = integer[f] ? String.valueOf(integerValue(f, u)) : String.valueOf(lo[f] + u * (hi[f] - lo[f]));
+            s = s.with(keys[f], value);
+        }
+        return s;
+    }
+
+    /**
+     * Maps u in [0, 1) onto the integers lo .. hi with equal width each, so the end points are as
+     * likely as the interior values (rounding would give them half a slot).
+     */
+    private long integerValue(int f, double u) {
+        return Math.min((long) hi[f], (long) Math.floor(lo[f] + u * (hi[f] - lo[f] + 1.0)));
+    }
+
+    private String format(int f, double v) {
+        return integer[f] ? String.valueOf((long) v) : String.valueOf(v);
+    }
+
+    private static boolean isInteger(String s) {
+        try {
+            Long.parseLong(s);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package inventory;
+
+/**
+ * Metrics.java
+ * Accumulates the total costs and service statistics over one simulation replication.
+ * Costs are summed in fixed point (millionths of a currency unit), so totals do not depend on
+ * the order in which nodes or days are booked: every engine, however it batches its updates,
+ * reports exactly the same figures.
+ */
+public class Metrics {
+
+    private static final double MICROS_PER_UNIT = 1_000_000.0;
+
+    // --- Cost Metrics (Accumulated Totals, in micros) ---
+    private long holdingMicros = 0;       // Accumulated cost for holding inventory (on_hand). 
+    private long backorderMicros = 0;     // Accumulated cost for having backorders (unmet demand). 
+    private long transportMicros = 0;     // Accumulated cost for all shipments across the entire supply chain.
+    
+    // --- Service and Frequency Metrics (Accumulated Totals; long, as a large network's yearly demand exceeds an int) ---
+    private long ordersCount = 0;          // Total number of *ordering events* (used to compare ordering frequency). 
+    private long fillImmediate = 0;        // Total units served directly from on-hand stock (numerator for Fill Rate). 
+    private long demandTotal = 0;          // Total customer demand realized (denominator for Fill Rate). 
+    private long backordersCreated = 0;    // Total units of demand that became a backorder on the day of demand. 
+
+    /**
+     * Constructor (initializes all metrics to zero).
+     */
+    public Metrics() {
+        // All fields are initialized to 0 or 0.0 by default or the initial values above.
+    }
+
+    // --- Getters (Required for final report summarization) ---
+
+    public double getHoldingCost() {
+        return holdingMicros / MICROS_PER_UNIT;
+    }
+
+    public double getBackorderCost() {
+        return backorderMicros / MICROS_PER_UNIT;
+    }
+
+    public double getTransportCost() {
+        return transportMicros / MICROS_PER_UNIT;
+    }
+
+    public long getOrdersCount() {
+        return ordersCount;
+    }
+
+    public long getFillImmediate() {
+        return fillImmediate;
+    }
+
+    public long getDemandTotal() {
+        return demandTotal;
+    }
+    
+    // --- Methods for Accumulation (Used by simulation functions like accrueDailyCosts and placeBaseStockOrder) ---
+
+    public void addHoldingCost(double cost) {
+        this.holdingMicros += toMicros(cost);
+    }
+
+    public void addBackorderCost(double cost) {
+        this.backorderMicros += toMicros(cost);
+    }
+    
+    public void addTransportCost(double cost) {
+        this.transportMicros += toMicros(cost);
+    }
+
+    // Unit-based variants: units * rate is exact, so booking 3 unit-days at once
+    // gives the same total as booking 1 unit-day three times.
+
+    public void addHoldingCost(long unitDays, double costPerUnitDay) {
+        this.holdingMicros += unitDays * toMicros(costPerUnitDay);
+    }
+
+    public void addBackorderCost(long unitDays, double costPerUnitDay) {
+        this.backorderMicros += unitDays * toMicros(costPerUnitDay);
+    }
+
+    public void addTransportCost(long units, double costPerUnit) {
+        this.transportMicros += units * toMicros(costPerUnit);
+    }
+
+    public void incrementOrdersCount() {
+        this.ordersCount++;
+    }
+
+    public void addOrdersCount(long orders) {
+        this.ordersCount += orders;
+    }
+
+    public void addFillImmediate(long served) {
+        this.fillImmediate += served;
+    }
+
+    public void addDemandTotal(long demand) {
+        this.demandTotal += demand;
+    }
+
+    public void addBackordersCreated(long shortage) {
+        this.backordersCreated += shortage;
+    }
+    
+    /**
+     * Adds another accumulator's totals to this one (e.g. the shards of one replication).
+     */
+    public void merge(Metrics other) {
+        this.holdingMicros += other.holdingMicros;
+        this.backorderMicros += other.backorderMicros;
+        this.transportMicros += other.transportMicros;
+        this.ordersCount += other.ordersCount;
+        this.fillImmediate += other.fillImmediate;
+        this.demandTotal += other.demandTotal;
+        this.backordersCreated += other.backordersCreated;
+    }
+
+    /**
+     * Calculates the overall Fill Rate (beta) for the replication.
+     * Fill Rate is the fraction of demand met immediately from stock. 
+     */
+    public double calculateFillRate() {
+        if (demandTotal == 0) return 0.0;
+        return (double) fillImmediate / demandTotal;
+    }
+
+    /**
+     * Calculates the total accumulated cost.
+     */
+    public double calculateTotalCost() {
+        return (holdingMicros + backorderMicros + transportMicros) / MICROS_PER_UNIT;
+    }
+
+    private static long toMicros(double cost) {
+        return Math.round(cost * MICROS_PER_UNIT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,270 @@
+package inventory;
+
+import java.util.Arrays;
+
+/**
+ * NetworkEngine.java
+ * Runs the daily cycle on any Topology. The graph is compiled once, in the constructor, into a flat
+ * schedule: nodes renumbered in processing order (every node before its suppliers, sources last),
+ * lanes grouped by supplier and by receiver in primitive arrays. A day is then a few straight passes
+ * over those arrays, with no graph traversal:
+ *   1) arrivals at every node; stores clear customer backorders first,
+ *   2) store demand realization and service,
+ *   3) in processing order, each DC ships what it owes from stock (rationed by the scenario's
+ *      AllocationPolicy, see CwOrderBook), then every node reviews its base stock and books the
+ *      order on its inbound lanes (split by share). Orders reach a supplier before it is visited,
+ *      and a source ships at once,
+ *   4) costs: holding at every stocking node, backorder cost at stores only (units a DC owes
+ *      other nodes are not customer backorders).
+ * For the standard designs (Topology.of) the Metrics equal the other engines' exactly.
+ * Each day is O(nodes + lanes). An engine is reusable across replications but not thread-safe.
+ */
+public class NetworkEngine {
+
+    private final Topology topology;
+    private final int v;                // Nodes, in processing order from here on.
+    private final int active;           // Non-source nodes: positions 0 .. active - 1.
+    private final int cap;              // Ring length for pending arrivals.
+    private final int[] nodeOf;         // Position -> topology node.
+    private final int[] storeOf;        // Position -> demand column, or -1 if not a store.
+    private final int[] storePosition;  // Demand column -> position.
+    private final boolean[] source;
+
+    // Lanes by supplier: lanes of position p are outStart[p] .. outStart[p + 1] - 1.
+    private final int[] outStart;
+    private final int[] laneTo;
+    private final int[] laneLead;
+    private final double[] laneCost;
+    private final int[] laneFrom;
+    // Lanes by receiver, in the same CSR form, with the cumulative share of each receiver's orders.
+    private final int[] inStart;
+    private final int[] inLane;
+    private final double[] inCumShare;
+
+    // State.
+    private final int[] onHand;
+    private final int[] backorder;      // Stores: customer backorders; DCs: units owed downstream.
+    private final int[] baseStock;
+    private final int[] inTransit;      // Shipped to the node, not arrived yet.
+    private final int[] owedIn;         // Ordered by the node, not shipped yet by its suppliers.
+    private final int[] pipeline;       // Position p, arrival day d: pipeline[p * cap + d % cap].
+    private final int[] demandToday;
+    private final CwOrderBook[] books;  // Per DC position; null for stores and sources.
+
+    /**
+     * Constructor for an engine on the given network; set the base stocks with loadBaseStocks before running.
+     */
+    public NetworkEngine(Topology topology) {
+        this.topology = topology;
+        this.v = topology.getNodeCount();
+        this.cap = topology.getMaxLead() + 1;
+        this.nodeOf = topology.processingOrder();
+        int[] positionOf = new int[v];
+        for (int p = 0; p < v; p++) positionOf[nodeOf[p]] = p;
+
+        this.source = new boolean[v];
+        this.storeOf = new int[v];
+        this.storePosition = new int[topology.getStoreCount()];
+        int stores = 0;
+        int sources = 0;
+        for (int node = 0; node < v; node++) {
+            int p = positionOf[node];
+            source[p] = topology.getKind(node) == Topology.Kind.SOURCE;
+            storeOf[p] = -1;
+            if (source[p]) sources++;
+            if (topology.getKind(node) == Topology.Kind.STORE) {
+                storeOf[p] = stores;
+                storePosition[stores++] = p;
+            }
+        }
+        this.active = v - sources;
+
+        int e = topology.getLaneCount();
+        this.outStart = new int[v + 1];
+        this.inStart = new int[v + 1];
+        double[] inShares = new double[v];
+        for (int l = 0; l < e; l++) {
+            Topology.Lane lane = topology.getLane(l);
+            outStart[positionOf[lane.from] + 1]++;
+            inStart[positionOf[lane.to] + 1]++;
+            inShares[positionOf[lane.to]] += lane.share;
+        }
+        for (int p = 0; p < v; p++) {
+            outStart[p + 1] += outStart[p];
+            inStart[p + 1] += inStart[p];
+        }
+        this.laneTo = new int[e];
+        this.laneLead = new int[e];
+        this.laneCost = new double[e];
+        this.laneFrom = new int[e];
+        this.inLane = new int[e];
+        this.inCumShare = new double[e];
+        int[] nextOut = Arrays.copyOf(outStart, v);
+        int[] nextIn = Arrays.copyOf(inStart, v);
+        for (int l = 0; l < e; l++) {
+            Topology.Lane lane = topology.getLane(l);
+            int from = positionOf[lane.from];
+            int to = positionOf[lane.to];
+            int q = nextOut[from]++;
+            laneTo[q] = to;
+            laneLead[q] = lane.lead;
+            laneCost[q] = lane.cost;
+            laneFrom[q] = from;
+            int k = nextIn[to]++;
+            inLane[k] = q;
+            inCumShare[k] = (k == inStart[to] ? 0.0 : inCumShare[k - 1]) + lane.share / inShares[to];
+        }
+
+        this.onHand = new int[v];
+        this.backorder = new int[v];
+        this.baseStock = new int[v];
+        this.inTransit = new int[v];
+        this.owedIn = new int[v];
+        this.pipeline = new int[v * cap];
+        this.demandToday = new int[storePosition.length];
+        this.books = new CwOrderBook[v];
+        for (int p = 0; p < active; p++) {
+            if (storeOf[p] < 0) books[p] = new CwOrderBook(outStart[p + 1] - outStart[p]);
+        }
+    }
+
+    /**
+     * Sets the base stocks, indexed by topology node (e.g. from Topology.baseStocks(Scenario)).
+     */
+    public void loadBaseStocks(int[] levels) {
+        if (levels.length != v) {
+            throw new IllegalArgumentException("Network has " + v + " nodes, got " + levels.length + " base stocks.");
+        }
+        for (int p = 0; p < v; p++) {
+            baseStock[p] = source[p] ? 0 : levels[nodeOf[p]];
+        }
+    }
+
+    public Topology getTopology() {
+        return topology;
+    }
+
+    public Metrics run(DemandSource demand, Scenario sc) {
+        if (sc.getRetailers() != storePosition.length) {
+            throw new IllegalArgumentException("Network has " + storePosition.length + " stores; the scenario has "
+                + sc.getRetailers() + " retailers.");
+        }
+        reset(sc.getAllocation());
+        double holding = sc.getHoldingCost();
+        double backorderCost = sc.getBackorderCost();
+        Metrics metrics = new Metrics();
+        for (int day = 1; day <= sc.getDays(); day++) {
+            // 1) Arrivals; stores fill old customer orders first
+            for (int p = 0, slot = day % cap; p < active; p++, slot += cap) {
+                int arrived = pipeline[slot];
+                pipeline[slot] = 0;
+                inTransit[p] -= arrived;
+                int oh = onHand[p] + arrived;
+                if (storeOf[p] >= 0) {
+                    int cleared = Math.min(oh, backorder[p]);
+                    oh -= cleared;
+                    backorder[p] -= cleared;
+                }
+                onHand[p] = oh;
+            }
+
+            // 2) Store demand realization and service
+            demand.fillDay(day, demandToday);
+            for (int s = 0; s < storePosition.length; s++) {
+                int p = storePosition[s];
+                int d = demandToday[s];
+                int served = Math.min(onHand[p], d);
+                onHand[p] -= served;
+                backorder[p] += d - served;
+                metrics.addFillImmediate(served);
+                metrics.addBackordersCreated(d - served);
+                metrics.addDemandTotal(d);
+            }
+
+            // 3) Downstream first: ship what is owed, then review
+            for (int p = 0; p < active; p++) {
+                if (books[p] != null) ship(p, day, metrics);
+                review(p, day, metrics);
+            }
+
+            // 4) Costs for the day
+            for (int p = 0; p < active; p++) {
+                metrics.addHoldingCost(onHand[p], holding);
+                if (storeOf[p] >= 0) metrics.addBackorderCost(backorder[p], backorderCost);
+            }
+        }
+        return metrics;
+    }
+
+    private void ship(int p, int day, Metrics metrics) {
+        CwOrderBook book = books[p];
+        backorder[p] = book.getTotalOwed(); // Today's orders from downstream are all in.
+        if (backorder[p] == 0) return;
+        int first = outStart[p];
+        if (book.needsPositions(onHand[p])) {
+            for (int q = first; q < outStart[p + 1]; q++) {
+                int to = laneTo[q];
+                book.setPosition(q - first, onHand[to] + inTransit[to] - backorder[to]);
+            }
+        }
+        int total = book.allocate(onHand[p]);
+        if (total == 0) return;
+        onHand[p] -= total;
+        backorder[p] = book.getTotalOwed();
+        for (int q = first; q < outStart[p + 1]; q++) {
+            int qty = book.getShipped(q - first);
+            if (qty > 0) {
+                int to = laneTo[q];
+                pipeline[to * cap + (day + laneLead[q]) % cap] += qty;
+                inTransit[to] += qty;
+                owedIn[to] -= qty;
+                metrics.addTransportCost(qty, laneCost[q]);
+            }
+        }
+    }
+
+    private void review(int p, int day, Metrics metrics) {
+        int qty = baseStock[p] - (onHand[p] + inTransit[p] + owedIn[p] - backorder[p]);
+        if (qty <= 0) return;
+        int first = inStart[p];
+        int last = inStart[p + 1] - 1;
+        if (first == last) {
+            orderOnLane(p, inLane[first], qty, day, metrics);
+            return;
+        }
+        int placed = 0;
+        for (int k = first; k <= last; k++) {
+            int upTo = k == last ? qty : (int) Math.floor(qty * inCumShare[k]);
+            int part = upTo - placed;
+            if (part <= 0) continue;
+            placed = upTo;
+            orderOnLane(p, inLane[k], part, day, metrics);
+        }
+    }
+
+    private void orderOnLane(int p, int q, int qty, int day, Metrics metrics) {
+        int from = laneFrom[q];
+        metrics.incrementOrdersCount();
+        if (source[from]) {
+            pipeline[p * cap + (day + laneLead[q]) % cap] += qty;
+            inTransit[p] += qty;
+            metrics.addTransportCost(qty, laneCost[q]);
+        } else {
+            books[from].order(q - outStart[from], qty);
+            owedIn[p] += qty;
+        }
+    }
+
+    private void reset(AllocationPolicy policy) {
+        for (int p = 0; p < v; p++) {
+            onHand[p] = baseStock[p];
+        }
+        Arrays.fill(backorder, 0);
+        Arrays.fill(inTransit, 0);
+        Arrays.fill(owedIn, 0);
+        Arrays.fill(pipeline, 0);
+        for (CwOrderBook book : books) {
+            if (book != null) book.reset(policy);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package inventory;
+
+import java.util.Arrays;
+
+/**
+ * NodeState.java
+ * Defines an inventory-holding location (Retailer, CW, or MFG) and its current state.
+ * Nodes are identified by dense int IDs (MFG = -1, CW = 0, retailers 1..N, as in EventEngine),
+ * so the daily cycle never touches a String; names are only built for debugging output.
+ */
+public class NodeState {
+
+    // Longest standard lead time plus the arrival day itself; the ring grows if a longer lead is used.
+    private static final int DEFAULT_PIPELINE_DAYS =
+        Math.max(Params.LT_MFG_TO_RETAILER, Params.LT_MFG_TO_CW + Params.LT_CW_TO_RETAILER) + 1;
+
+    public static final int MFG = -1;
+    public static final int CW = 0;
+
+    private final int id;           // MFG, CW, or the retailer number (1-based).
+    private int onHand;
+    private int backorder;
+    private int[] pipeline;         // Units arriving on day d are held in slot d % pipeline.length.
+    private int inTransitQty;       // Running total of the pipeline (Stock on Order).
+    private int baseStock;          
+    private int ordersPlacedToday;  
+
+    /**
+     * Constructor for a new NodeState.
+     */
+    public NodeState(int id) {
+        this.id = id;
+        this.onHand = 0;
+        this.backorder = 0;
+        this.pipeline = new int[DEFAULT_PIPELINE_DAYS];
+        this.inTransitQty = 0;
+        this.baseStock = 0;
+        this.ordersPlacedToday = 0;
+    }
+
+    /**
+     * Constructor for initialization with a starting stock level.
+     */
+    public NodeState(int id, int initialStock) {
+        this(id);
+        this.onHand = initialStock;
+    }
+
+    // --- Getters and Setters (Necessary for simulation logic and metric accumulation) ---
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return id == MFG ? "MFG" : id == CW ? "CW" : "R" + id;
+    }
+
+    public int getOnHand() {
+        return onHand;
+    }
+
+    public void setOnHand(int onHand) {
+        this.onHand = onHand;
+    }
+
+    public int getBackorder() {
+        return backorder;
+    }
+
+    public void setBackorder(int backorder) {
+        this.backorder = backorder;
+    }
+
+    /**
+     * Stock on Order: total quantity shipped to this node that has not arrived yet. O(1).
+     */
+    public int getInTransitQty() {
+        return inTransitQty;
+    }
+
+    /**
+     * Books a shipment of qty units ordered today that arrives after the given lead time.
+     */
+    public void addInTransit(int today, int lead, int qty) {
+        if (qty <= 0) {
+            throw new IllegalArgumentException("Shipment quantity must be positive.");
+        }
+        if (lead < 1) {
+            throw new IllegalArgumentException("Lead time must be at least one day.");
+        }
+        if (lead >= pipeline.length) {
+            growPipeline(today, lead + 1);
+        }
+        pipeline[(today + lead) % pipeline.length] += qty;
+        inTransitQty += qty;
+    }
+
+    /**
+     * Removes and returns the quantity arriving on the given day.
+     * Must be called once for every day, in order, before that day's orders are placed.
+     */
+    public int receiveInTransit(int day) {
+        int slot = day % pipeline.length;
+        int qty = pipeline[slot];
+        pipeline[slot] = 0;
+        inTransitQty -= qty;
+        return qty;
+    }
+
+    public void clearInTransit() {
+        Arrays.fill(pipeline, 0);
+        inTransitQty = 0;
+    }
+
+    // Re-slots pending arrivals (today + 1 .. today + old length - 1) into a larger ring.
+    private void growPipeline(int today, int newLength) {
+        int[] grown = new int[newLength];
+        for (int d = today + 1; d < today + pipeline.length; d++) {
+            grown[d % newLength] = pipeline[d % pipeline.length];
+        }
+        pipeline = grown;
+    }
+
+    public int getBaseStock() {
+        return baseStock;
+    }
+
+    public void setBaseStock(int baseStock) {
+        this.baseStock = baseStock;
+    }
+
+    public int getOrdersPlacedToday() {
+        return ordersPlacedToday;
+    }
+
+    public void setOrdersPlacedToday(int ordersPlacedToday) {
+        this.ordersPlacedToday = ordersPlacedToday;
+    }
+
+    // Utility for debugging
+    @Override
+    public String toString() {
+        int ip = onHand + inTransitQty - backorder;
+        return String.format("%s: OH=%d, BO=%d, IT=%d, IP=%d, S=%d",
+            getName(), onHand, backorder, inTransitQty, ip, baseStock);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package inventory;
+
+import java.util.SplittableRandom;
+
+/**
+ * NormalDemandSource.java
+ * Independent Normal demand truncated at 0, drawn from one seeded stream per retailer.
+ */
+public class NormalDemandSource implements DemandSource {
+
+    private final SplittableRandom[] rngs;
+    private final double mu;
+    private final double sigma;
+    private final NormalSampler sampler;
+    private final DemandTransform transform = DemandTransform.best();
+    private final double[] z;                  // Today's standard normal draws.
+
+    /**
+     * Constructor for the demand of nRetailers retailers in the replication with the given seed.
+     */
+    public NormalDemandSource(long replicationSeed, int nRetailers, double mu, double sigma) {
+        this(replicationSeed, nRetailers, mu, sigma, Params.NORMAL_SAMPLER);
+    }
+
+    public NormalDemandSource(long replicationSeed, int nRetailers, double mu, double sigma, NormalSampler sampler) {
+        this.rngs = RandomStreams.retailerStreams(replicationSeed, nRetailers);
+        this.mu = mu;
+        this.sigma = sigma;
+        this.sampler = sampler;
+        this.z = new double[nRetailers];
+    }
+
+    @Override
+    public void fillDay(int day, int[] out) {
+        sampler.fillDemand(rngs, mu, sigma, transform, z, out);
+    }
+
+    @Override
+    public void fillDays(int firstDay, int[][] out) {
+        sampler.fillDemand(rngs, mu, sigma, transform, z, out);
+    }
+
+    /**
+     * Simulates demand based on a Normal distribution truncated at 0.
+     */
+    static int drawDailyDemand(NormalSampler sampler, SplittableRandom rng, double mu, double sigma) {
+        // Normal draw from the retailer's own stream, so the run is reproducible  
+        double demandDraw = sampler.next(rng) * sigma + mu;
+        
+        return toDemand(demandDraw);
+    }
+
+    /**
+     * Demand must be non-negative and an integer.
+     */
+    static int toDemand(double draw) {
+        return Math.max(0, (int) Math.round(draw));
+    }
+}
@@ -0,0 +1,63 @@
+package inventory;
+
+import java.util.SplittableRandom;
+
+/**
+ * NormalSampler.java
+ * Source of standard normal variates for the demand generators, drawn from a caller-supplied
+ * stream so that the streams (and with them reproducibility) stay in RandomStreams.
+ * Bulk methods fill a block of variates, or a whole day or T x N block of demand, in one call.
+ */
+public enum NormalSampler {
+
+    JDK {           // SplittableRandom.nextGaussian; its algorithm may differ between JDK releases.
+        @Override
+        public double next(SplittableRandom rng) {
+            return rng.nextGaussian();
+        }
+    },
+    ZIGGURAT {      // ZigguratSampler; identical draws on every JDK.
+        @Override
+        public double next(SplittableRandom rng) {
+            return ZigguratSampler.next(rng);
+        }
+    };
+
+    /**
+     * One standard normal variate.
+     */
+    public abstract double next(SplittableRandom rng);
+
+    /**
+     * Fills out[from .. to - 1] with standard normal variates from one stream.
+     */
+    public void fill(SplittableRandom rng, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = next(rng);
+        }
+    }
+
+    /**
+     * Fills out[0 .. N-1] with one day of Normal(mu, sigma) demand truncated at 0, one draw from each
+     * retailer's stream. The variates go to the scratch array z first, then transform scales, rounds
+     * and truncates the whole day in one block.
+     */
+    public void fillDemand(SplittableRandom[] rngs, double mu, double sigma, DemandTransform transform,
+                           double[] z, int[] out) {
+        for (int i = 0; i < rngs.length; i++) {
+            z[i] = next(rngs[i]);
+        }
+        transform.toDemand(z, mu, sigma, out, 0, rngs.length);
+    }
+
+    /**
+     * The same for a T x N block, one day per row: each retailer's days come from its stream in order,
+     * so the block equals T single-day fills.
+     */
+    public void fillDemand(SplittableRandom[] rngs, double mu, double sigma, DemandTransform transform,
+                           double[] z, int[][] out) {
+        for (int[] day : out) {
+            fillDemand(rngs, mu, sigma, transform, z, day);
+        }
+    }
+}
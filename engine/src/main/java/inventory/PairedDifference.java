@@ -0,0 +1,43 @@
+package inventory;
+
+/**
+ * PairedDifference.java
+ * Statistics of the per-replication difference (centralized - decentralized) in total cost per day.
+ * With common random numbers the two runs of a replication are positively correlated,
+ * so the paired interval is much narrower than the one for two independent samples.
+ */
+public class PairedDifference {
+    double meanDiff;         // Mean of (C - D) total cost per day.
+    double stdDevDiff;       // Sample standard deviation of the differences.
+    double halfWidth;        // 95% confidence half-width of meanDiff (paired t-interval).
+    double unpairedHalfWidth; // Half-width the same data would give if treated as independent samples.
+    long n;                  // Number of replication pairs.
+
+    /**
+     * Builds the paired statistics from the streamed differences and each design's total cost per day.
+     */
+    public static PairedDifference of(RunningStat diff, RunningStat costC, RunningStat costD) {
+        PairedDifference p = new PairedDifference();
+        p.n = diff.getCount();
+        p.meanDiff = diff.getMean();
+        p.stdDevDiff = diff.getStdDev();
+        p.halfWidth = diff.getHalfWidth();
+        if (p.n > 1) {
+            p.unpairedHalfWidth = RunningStat.tQuantile975(2 * p.n - 2)
+                * Math.sqrt((costC.getVariance() + costD.getVariance()) / p.n);
+        }
+        return p;
+    }
+
+    public double getMeanDiff() {
+        return meanDiff;
+    }
+
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    public long getCount() {
+        return n;
+    }
+}
@@ -1,3 +1,5 @@
+package inventory;
+
 /**
  * Params.java
  * Defines all constant input parameters (costs, lead times, demand, service goals) 
@@ -10,6 +12,18 @@ public class Params {
     public static final int R_REPLICATIONS = 30; // Number of times to run the simulation for statistical averaging.
     public static final int N_RETAILERS = 3;    // Number of independent retailer nodes in the system.
     public static final double TARGET_FILL_RATE = 0.95; // Target service level (beta) for base stock calculation.
+    public static final long MASTER_SEED = 20240601L; // Root of all demand random streams; same seed, same results.
+    public static final boolean COMMON_RANDOM_NUMBERS = true; // Both designs replay the same demand in each replication.
+    public static final Engine ENGINE = Engine.OBJECT; // Implementation of the daily cycle (see Engine).
+    public static final AllocationPolicy ALLOCATION_POLICY = AllocationPolicy.FIFO; // How a short CW rations stock among retailers.
+    public static final int SHARDS = 1; // Threads sharing one replication's retailers (ARRAY engine only).
+    public static final CostAccrual COST_ACCRUAL = CostAccrual.DAILY; // How the OBJECT engine books holding and backorder costs.
+    public static final boolean FUSED_STEP = true; // One pass per retailer per day; false runs each phase as its own pass.
+    public static final NormalSampler NORMAL_SAMPLER = NormalSampler.ZIGGURAT; // Gaussian generator behind all demand draws.
+    public static final double RELATIVE_PRECISION = 0.0; // Sequential mode: add replications until the 95% CI half-width is this fraction of the mean (0 = always R_REPLICATIONS).
+    public static final PrecisionTarget PRECISION_TARGET = PrecisionTarget.DIFFERENCE; // Which interval the sequential mode watches.
+    public static final int MAX_REPLICATIONS = 1000; // Budget cap on replications per scenario in sequential mode.
+    public static final int N_THREADS = Runtime.getRuntime().availableProcessors(); // Worker threads for running replications in parallel.
     
     // --- B. Inventory Costs (Per Unit Per Day) ---
     // Note: Use a consistent time unit (day).
@@ -35,17 +49,4 @@ public class Params {
     
 
     // public static final double COST_FIXED_CW_OPERATING = 1000.0; 
-    
-    /**
-     * Helper function to determine the z-score (standard normal deviate)
-     * corresponding to the target service level (fill rate).
-     * NOTE: In a full Java implementation, you would use a statistics library.
-     * For a simplified project, a hardcoded value based on Normal approximation is common.
-     * For a 95% Cycle Service Level (used for the Base Stock formula) in a Normal distribution:
-     * P(Z <= z) = 0.95 -> z ≈ 1.645
-     */
-    public static double getZScoreForServiceTarget() {
-        // This is a placeholder value for a 95% target, assuming the target refers 
-        return 1.645; 
-    }
-}
\ No newline at end of file
+}
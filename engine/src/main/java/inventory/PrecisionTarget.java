@@ -0,0 +1,10 @@
+package inventory;
+
+/**
+ * PrecisionTarget.java
+ * Selects which confidence interval the sequential stopping rule watches (see Scenario.getRelativePrecision).
+ */
+public enum PrecisionTarget {
+    TOTAL_COST, // Total cost per day of each design.
+    DIFFERENCE  // Paired difference in total cost per day (C - D).
+}
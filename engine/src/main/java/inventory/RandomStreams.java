@@ -0,0 +1,62 @@
+package inventory;
+
+import java.util.SplittableRandom;
+
+/**
+ * RandomStreams.java
+ * Derives independent, reproducible random streams from one master seed.
+ * Every (scenario, design, replication) gets its own seed, and every retailer within a
+ * replication gets its own SplittableRandom, so a run gives the same draws on any thread.
+ */
+public class RandomStreams {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L; // SplitMix64 increment.
+
+    private final long masterSeed;
+
+    /**
+     * Constructor for the stream family rooted at the given master seed.
+     */
+    public RandomStreams(long masterSeed) {
+        this.masterSeed = masterSeed;
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    /**
+     * Seed for one replication of one design (0 = centralized, 1 = decentralized) in one scenario.
+     */
+    public long replicationSeed(int scenario, int design, int replication) {
+        return derive(derive(derive(masterSeed, scenario), design), replication);
+    }
+
+    /**
+     * Demand stream for one retailer (0-based index) inside a replication.
+     */
+    public static SplittableRandom retailerStream(long replicationSeed, int retailer) {
+        return new SplittableRandom(derive(replicationSeed, retailer));
+    }
+
+    /**
+     * One stream per retailer, indexed like the retailer list.
+     */
+    public static SplittableRandom[] retailerStreams(long replicationSeed, int nRetailers) {
+        SplittableRandom[] streams = new SplittableRandom[nRetailers];
+        for (int i = 0; i < nRetailers; i++) {
+            streams[i] = retailerStream(replicationSeed, i);
+        }
+        return streams;
+    }
+
+    /**
+     * Hashes a parent seed and a child key into a well-mixed child seed (SplitMix64 finalizer).
+     */
+    static long derive(long seed, long key) {
+        long z = seed + GOLDEN_GAMMA * (key + 1);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
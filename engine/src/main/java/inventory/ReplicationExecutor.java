@@ -0,0 +1,164 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * ReplicationExecutor.java
+ * Runs independent replications on a fork-join pool and returns their results in index order,
+ * so the output does not depend on how many threads did the work.
+ */
+public class ReplicationExecutor {
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for an executor backed by its own pool of the given size.
+     */
+    public ReplicationExecutor(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive.");
+        }
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Runs task(0) .. task(count - 1) in parallel and collects the results by index.
+     * Called from inside a fork-join worker, the work joins the caller's pool instead (nested use).
+     */
+    public <T> List<T> map(int count, IntFunction<T> task) {
+        Object[] results = new Object[count];
+        if (count > 0) {
+            MapTask<T> root = new MapTask<>(task, results, 0, count);
+            if (ForkJoinTask.inForkJoinPool()) {
+                root.invoke();
+            } else {
+                pool.invoke(root);
+            }
+        }
+        List<T> out = new ArrayList<>(count);
+        for (Object r : results) {
+            @SuppressWarnings("unchecked")
+            T t = (T) r;
+            out.add(t);
+        }
+        return out;
+    }
+
+    /**
+     * Computes leaf(0) .. leaf(count - 1) in parallel and combines them with merge.
+     * The merge tree depends only on count (ranges are always halved), never on the
+     * thread count or scheduling, so floating-point results are reproducible.
+     */
+    public <T> T reduce(int count, IntFunction<T> leaf, BinaryOperator<T> merge) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Nothing to reduce.");
+        }
+        ReduceTask<T> root = new ReduceTask<>(leaf, merge, 0, count);
+        return ForkJoinTask.inForkJoinPool() ? root.invoke() : pool.invoke(root);
+    }
+
+    /**
+     * Runs task(0) .. task(count - 1) in parallel without collecting anything, for callers
+     * that hand each result on as soon as it exists (e.g. a sweep streaming to a sink).
+     * Idle workers steal halves of the remaining index range.
+     */
+    public void forEach(int count, IntConsumer task) {
+        if (count <= 0) return;
+        ForEachTask root = new ForEachTask(task, 0, count);
+        if (ForkJoinTask.inForkJoinPool()) {
+            root.invoke();
+        } else {
+            pool.invoke(root);
+        }
+    }
+
+    /**
+     * Splits an index range in halves until each task owns a single replication.
+     */
+    @SuppressWarnings("serial") // Never serialized; the fields hold lambdas.
+    private static class MapTask<T> extends RecursiveAction {
+        private final IntFunction<T> task;
+        private final Object[] results;
+        private final int lo;
+        private final int hi;
+
+        MapTask(IntFunction<T> task, Object[] results, int lo, int hi) {
+            this.task = task;
+            this.results = results;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                results[lo] = task.apply(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new MapTask<>(task, results, lo, mid), new MapTask<>(task, results, mid, hi));
+        }
+    }
+
+    @SuppressWarnings("serial") // Never serialized; the fields hold lambdas.
+    private static class ForEachTask extends RecursiveAction {
+        private final IntConsumer task;
+        private final int lo;
+        private final int hi;
+
+        ForEachTask(IntConsumer task, int lo, int hi) {
+            this.task = task;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                task.accept(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ForEachTask(task, lo, mid), new ForEachTask(task, mid, hi));
+        }
+    }
+
+    @SuppressWarnings("serial") // Never serialized; the fields hold lambdas.
+    private static class ReduceTask<T> extends RecursiveTask<T> {
+        private final IntFunction<T> leaf;
+        private final BinaryOperator<T> merge;
+        private final int lo;
+        private final int hi;
+
+        ReduceTask(IntFunction<T> leaf, BinaryOperator<T> merge, int lo, int hi) {
+            this.leaf = leaf;
+            this.merge = merge;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected T compute() {
+            if (hi - lo == 1) {
+                return leaf.apply(lo);
+            }
+            int mid = (lo + hi) >>> 1;
+            ReduceTask<T> right = new ReduceTask<>(leaf, merge, mid, hi);
+            right.fork();
+            T left = new ReduceTask<>(leaf, merge, lo, mid).compute();
+            return merge.apply(left, right.join());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package inventory;
+
+/**
+ * ReplicationStats.java
+ * Streaming summary of a scenario's replications, replacing the list of per-replication Metrics.
+ * Each replication pair is folded in once; per-day costs get full RunningStats, fill rate is
+ * pooled from exact unit counts, and the paired difference (C - D) is tracked alongside.
+ * Partial results from parallel workers merge exactly (see RunningStat).
+ */
+public class ReplicationStats {
+
+    /**
+     * Accumulators for one design.
+     */
+    static class Design {
+        final RunningStat totalCostPerDay = new RunningStat();
+        final RunningStat holdingPerDay = new RunningStat();
+        final RunningStat backorderPerDay = new RunningStat();
+        final RunningStat transportPerDay = new RunningStat();
+        final RunningStat ordersPerDay = new RunningStat();
+        final RunningStat fillRate = new RunningStat(); // Per replication; the summary's point estimate is pooled.
+        long fillImmediate = 0;
+        long demandTotal = 0;
+
+        void add(Metrics m, int days) {
+            totalCostPerDay.add(m.calculateTotalCost() / days);
+            holdingPerDay.add(m.getHoldingCost() / days);
+            backorderPerDay.add(m.getBackorderCost() / days);
+            transportPerDay.add(m.getTransportCost() / days);
+            ordersPerDay.add((double) m.getOrdersCount() / days);
+            if (m.getDemandTotal() > 0) fillRate.add((double) m.getFillImmediate() / m.getDemandTotal());
+            fillImmediate += m.getFillImmediate();
+            demandTotal += m.getDemandTotal();
+        }
+
+        Design merge(Design o) {
+            totalCostPerDay.merge(o.totalCostPerDay);
+            holdingPerDay.merge(o.holdingPerDay);
+            backorderPerDay.merge(o.backorderPerDay);
+            transportPerDay.merge(o.transportPerDay);
+            ordersPerDay.merge(o.ordersPerDay);
+            fillRate.merge(o.fillRate);
+            fillImmediate += o.fillImmediate;
+            demandTotal += o.demandTotal;
+            return this;
+        }
+
+        SummaryMetrics summarize() {
+            SummaryMetrics s = new SummaryMetrics();
+            s.totalCostPerDay = totalCostPerDay.getMean();
+            s.totalCostHalfWidth = totalCostPerDay.getHalfWidth();
+            s.fillRate = demandTotal == 0 ? 0.0 : (double) fillImmediate / demandTotal;
+            s.avgHoldingCostPerDay = holdingPerDay.getMean();
+            s.avgBackorderCostPerDay = backorderPerDay.getMean();
+            s.avgTransportCostPerDay = transportPerDay.getMean();
+            s.avgOrdersPerDay = ordersPerDay.getMean();
+            s.totalCost.merge(totalCostPerDay); // A copy: these accumulators may keep growing.
+            s.fillRates.merge(fillRate);
+            s.holding.merge(holdingPerDay);
+            s.backorder.merge(backorderPerDay);
+            s.transport.merge(transportPerDay);
+            s.orders.merge(ordersPerDay);
+            return s;
+        }
+    }
+
+    private final int days;
+    private final Design centralized = new Design();
+    private final Design decentralized = new Design();
+    private final RunningStat difference = new RunningStat(); // (C - D) total cost per day.
+
+    public ReplicationStats(int days) {
+        this.days = days;
+    }
+
+    /**
+     * Folds in the two designs' results of one replication.
+     */
+    public ReplicationStats add(Metrics resC, Metrics resD) {
+        centralized.add(resC, days);
+        decentralized.add(resD, days);
+        difference.add((resC.calculateTotalCost() - resD.calculateTotalCost()) / days);
+        return this;
+    }
+
+    /**
+     * Folds other into this accumulator and returns this.
+     */
+    public ReplicationStats merge(ReplicationStats other) {
+        centralized.merge(other.centralized);
+        decentralized.merge(other.decentralized);
+        difference.merge(other.difference);
+        return this;
+    }
+
+    public long getCount() {
+        return difference.getCount();
+    }
+
+    public RunningStat getCentralizedTotalCost() {
+        return centralized.totalCostPerDay;
+    }
+
+    public RunningStat getDecentralizedTotalCost() {
+        return decentralized.totalCostPerDay;
+    }
+
+    public RunningStat getDifference() {
+        return difference;
+    }
+
+    /**
+     * Largest 95% half-width relative to its mean among the intervals watched by target.
+     * Infinite while the mean is zero or fewer than two replications have been added.
+     */
+    public double relativeHalfWidth(PrecisionTarget target) {
+        if (target == PrecisionTarget.DIFFERENCE) {
+            return relative(difference);
+        }
+        return Math.max(relative(centralized.totalCostPerDay), relative(decentralized.totalCostPerDay));
+    }
+
+    private static double relative(RunningStat stat) {
+        double mean = Math.abs(stat.getMean());
+        return mean > 0.0 ? stat.getHalfWidth() / mean : Double.POSITIVE_INFINITY;
+    }
+
+    public ScenarioResult toResult(Scenario sc) {
+        return new ScenarioResult(sc, centralized.summarize(), decentralized.summarize(),
+                                  PairedDifference.of(difference, centralized.totalCostPerDay, decentralized.totalCostPerDay));
+    }
+}
@@ -0,0 +1,17 @@
+package inventory;
+
+import java.io.IOException;
+
+/**
+ * ResultSink.java
+ * Receives each design point's result as soon as it is finished.
+ * Called concurrently from worker threads, in completion order (not index order).
+ */
+public interface ResultSink extends AutoCloseable {
+
+    void accept(int index, ScenarioResult result);
+
+    @Override
+    default void close() throws IOException {
+    }
+}
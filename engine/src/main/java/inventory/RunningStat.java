@@ -0,0 +1,95 @@
+package inventory;
+
+/**
+ * RunningStat.java
+ * One-pass mean, variance, min and max of a stream of observations (Welford's method).
+ * Two accumulators fed with disjoint parts of a sample merge into the accumulator of the
+ * whole sample (Chan et al.), so parallel workers can each keep one and combine at the end.
+ */
+public class RunningStat {
+
+    private long n = 0;
+    private double mean = 0.0;
+    private double m2 = 0.0;      // Sum of squared deviations from the mean.
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double x) {
+        n++;
+        double delta = x - mean;
+        mean += delta / n;
+        m2 += delta * (x - mean);
+        if (x < min) min = x;
+        if (x > max) max = x;
+    }
+
+    /**
+     * Folds other into this accumulator and returns this.
+     */
+    public RunningStat merge(RunningStat other) {
+        if (other.n == 0) return this;
+        if (n == 0) {
+            n = other.n; mean = other.mean; m2 = other.m2; min = other.min; max = other.max;
+            return this;
+        }
+        long total = n + other.n;
+        double delta = other.mean - mean;
+        mean += delta * other.n / total;
+        m2 += other.m2 + delta * delta * ((double) n * other.n / total);
+        n = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public long getCount() {
+        return n;
+    }
+
+    public double getMean() {
+        return n == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Sample variance (n - 1 denominator).
+     */
+    public double getVariance() {
+        return n < 2 ? 0.0 : m2 / (n - 1);
+    }
+
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Half-width of the 95% confidence interval of the mean (Student t).
+     */
+    public double getHalfWidth() {
+        return n < 2 ? Double.POSITIVE_INFINITY : tQuantile975(n - 1) * getStdDev() / Math.sqrt(n);
+    }
+
+    // Two-sided 95% Student-t critical values for 1..30 degrees of freedom.
+    private static final double[] T_975 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    /**
+     * 0.975 quantile of Student's t; tabulated up to 30 df, Cornish-Fisher expansion above.
+     */
+    static double tQuantile975(long df) {
+        if (df <= 0) return Double.NaN;
+        if (df <= T_975.length) return T_975[(int) df - 1];
+        double z = 1.959964;
+        return z + (z * z * z + z) / (4.0 * df) + (5 * Math.pow(z, 5) + 16 * z * z * z + 3 * z) / (96.0 * df * df);
+    }
+}
@@ -0,0 +1,34 @@
+package inventory;
+
+/**
+ * ScalarDemandTransform.java
+ * Scalar DemandTransform, and the loader that picks VectorDemandTransform when it can.
+ */
+final class ScalarDemandTransform implements DemandTransform {
+
+    static final ScalarDemandTransform INSTANCE = new ScalarDemandTransform();
+    static final DemandTransform BEST = load();
+
+    private ScalarDemandTransform() {
+    }
+
+    @Override
+    public void toDemand(double[] z, double mu, double sigma, int[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = NormalDemandSource.toDemand(z[i] * sigma + mu);
+        }
+    }
+
+    /**
+     * VectorDemandTransform links against jdk.incubator.vector, so it is only touched by name:
+     * without the module the class fails to link and the scalar loop is used instead.
+     */
+    private static DemandTransform load() {
+        try {
+            return (DemandTransform) Class.forName("inventory.VectorDemandTransform")
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package inventory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Scenario.java
+ * One immutable set of input parameters for an experiment: horizon, network size, costs,
+ * lead times, demand and run controls. Defaults come from Params; every "with" method returns
+ * a modified copy, so a Scenario can be shared freely between threads and many differently
+ * parameterized scenarios can run side by side in one JVM.
+ * Scenarios can also be read from a properties file or from "key=value" command-line flags,
+ * using the keys listed in with(String, String).
+ */
+public final class Scenario {
+
+    // --- Identity ---
+    private String name = "default";
+    private int id = 0;                   // Selects the random streams (see RandomStreams).
+
+    // --- A. General Simulation Controls ---
+    private int days = Params.T_DAYS;
+    private int replications = Params.R_REPLICATIONS;
+    private int retailers = Params.N_RETAILERS;
+    private double targetFillRate = Params.TARGET_FILL_RATE;
+    private boolean commonRandomNumbers = Params.COMMON_RANDOM_NUMBERS;
+    private Engine engine = Params.ENGINE;
+    private AllocationPolicy allocation = Params.ALLOCATION_POLICY;
+    private int shards = Params.SHARDS;
+    private boolean fusedStep = Params.FUSED_STEP;
+    private CostAccrual costAccrual = Params.COST_ACCRUAL;
+    private NormalSampler sampler = Params.NORMAL_SAMPLER;
+    private double relativePrecision = Params.RELATIVE_PRECISION;
+    private PrecisionTarget precisionTarget = Params.PRECISION_TARGET;
+    private int maxReplications = Params.MAX_REPLICATIONS;
+    private String demandTape = null;     // Replay demand from this DemandTape file instead of generating it.
+    private String demandTrace = null;    // Replay historical sales from this file (see TraceDemandSource); a tape wins.
+    private String topology = null;       // Run this Topology file in place of the centralized design.
+    private String correlationMatrix = null; // N x N retailer correlation matrix file (CholeskyFactor.read); replaces rho.
+    private String covarianceMatrix = null;  // N x N retailer covariance matrix file; replaces rho and demandSigma.
+
+    // --- B. Inventory Costs (Per Unit Per Day) ---
+    private double holdingCost = Params.COST_HOLDING_PER_DAY;
+    private double backorderCost = Params.COST_BACKORDER_PER_DAY;
+
+    // --- C. Transportation Costs (Per Unit) ---
+    private double transportInbound = Params.COST_TRANSPORT_INBOUND;
+    private double transportOutbound = Params.COST_TRANSPORT_OUTBOUND;
+    private double transportDirect = Params.COST_TRANSPORT_DIRECT;
+
+    // --- D. Lead Times (In Days) ---
+    private int leadMfgToCw = Params.LT_MFG_TO_CW;
+    private int leadCwToRetailer = Params.LT_CW_TO_RETAILER;
+    private int leadMfgToRetailer = Params.LT_MFG_TO_RETAILER;
+
+    // --- E. Demand Parameters ---
+    private double demandMean = Params.DEMAND_MEAN_DAILY;
+    private double demandSigma = Params.DEMAND_SIGMA_DAILY;
+    private double rho = Params.DEMAND_CORRELATION_RHO;
+
+    private Scenario() {
+    }
+
+    private Scenario copy() {
+        Scenario s = new Scenario();
+        s.name = name;
+        s.id = id;
+        s.days = days;
+        s.replications = replications;
+        s.retailers = retailers;
+        s.targetFillRate = targetFillRate;
+        s.commonRandomNumbers = commonRandomNumbers;
+        s.engine = engine;
+        s.allocation = allocation;
+        s.shards = shards;
+        s.fusedStep = fusedStep;
+        s.costAccrual = costAccrual;
+        s.sampler = sampler;
+        s.relativePrecision = relativePrecision;
+        s.precisionTarget = precisionTarget;
+        s.maxReplications = maxReplications;
+        s.demandTape = demandTape;
+        s.demandTrace = demandTrace;
+        s.topology = topology;
+        s.correlationMatrix = correlationMatrix;
+        s.covarianceMatrix = covarianceMatrix;
+        s.holdingCost = holdingCost;
+        s.backorderCost = backorderCost;
+        s.transportInbound = transportInbound;
+        s.transportOutbound = transportOutbound;
+        s.transportDirect = transportDirect;
+        s.leadMfgToCw = leadMfgToCw;
+        s.leadCwToRetailer = leadCwToRetailer;
+        s.leadMfgToRetailer = leadMfgToRetailer;
+        s.demandMean = demandMean;
+        s.demandSigma = demandSigma;
+        s.rho = rho;
+        return s;
+    }
+
+    /**
+     * The scenario described by the constants in Params.
+     */
+    public static Scenario defaults() {
+        return new Scenario();
+    }
+
+    /**
+     * Defaults overridden by every recognised key in the properties.
+     */
+    public static Scenario fromProperties(Properties props) {
+        Scenario s = defaults();
+        for (String key : props.stringPropertyNames()) {
+            s = s.with(key, props.getProperty(key).trim());
+        }
+        return s;
+    }
+
+    public static Scenario fromFile(Path file) throws IOException {
+        Properties props = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(in);
+        }
+        return fromProperties(props);
+    }
+
+    /**
+     * Applies "key=value" overrides, e.g. from the command line.
+     */
+    public Scenario withOverrides(Iterable<String> keyValues) {
+        Scenario s = this;
+        for (String kv : keyValues) {
+            int eq = kv.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + kv);
+            }
+            s = s.with(kv.substring(0, eq).trim(), kv.substring(eq + 1).trim());
+        }
+        return s;
+    }
+
+    /**
+     * Returns a copy with one parameter, named by its property key, set from text.
+     */
+    public Scenario with(String key, String value) {
+        switch (key) {
+            case "name": return withName(value);
+            case "id": return withId(Integer.parseInt(value));
+            case "days": return withDays(Integer.parseInt(value));
+            case "replications": return withReplications(Integer.parseInt(value));
+            case "retailers": return withRetailers(Integer.parseInt(value));
+            case "targetFillRate": return withTargetFillRate(Double.parseDouble(value));
+            case "commonRandomNumbers": return withCommonRandomNumbers(Boolean.parseBoolean(value));
+            case "engine": return withEngine(Engine.valueOf(value.toUpperCase()));
+            case "allocation": return withAllocation(AllocationPolicy.valueOf(value.toUpperCase()));
+            case "shards": return withShards(Integer.parseInt(value));
+            case "fusedStep": return withFusedStep(Boolean.parseBoolean(value));
+            case "costAccrual": return withCostAccrual(CostAccrual.valueOf(value.toUpperCase()));
+            case "sampler": return withSampler(NormalSampler.valueOf(value.toUpperCase()));
+            case "relativePrecision": return withRelativePrecision(Double.parseDouble(value));
+            case "precisionTarget": return withPrecisionTarget(PrecisionTarget.valueOf(value.toUpperCase()));
+            case "maxReplications": return withMaxReplications(Integer.parseInt(value));
+            case "demandTape": return withDemandTape(value.isEmpty() ? null : value);
+            case "demandTrace": return withDemandTrace(value.isEmpty() ? null : value);
+            case "topology": return withTopology(value.isEmpty() ? null : value);
+            case "correlationMatrix": return withCorrelationMatrix(value.isEmpty() ? null : value);
+            case "covarianceMatrix": return withCovarianceMatrix(value.isEmpty() ? null : value);
+            case "holdingCost": return withHoldingCost(Double.parseDouble(value));
+            case "backorderCost": return withBackorderCost(Double.parseDouble(value));
+            case "transportInbound": return withTransportInbound(Double.parseDouble(value));
+            case "transportOutbound": return withTransportOutbound(Double.parseDouble(value));
+            case "transportDirect": return withTransportDirect(Double.parseDouble(value));
+            case "leadMfgToCw": return withLeadMfgToCw(Integer.parseInt(value));
+            case "leadCwToRetailer": return withLeadCwToRetailer(Integer.parseInt(value));
+            case "leadMfgToRetailer": return withLeadMfgToRetailer(Integer.parseInt(value));
+            case "demandMean": return withDemandMean(Double.parseDouble(value));
+            case "demandSigma": return withDemandSigma(Double.parseDouble(value));
+            case "rho": return withRho(Double.parseDouble(value));
+            default: throw new IllegalArgumentException("Unknown scenario parameter: " + key);
+        }
+    }
+
+    // --- Withers (each returns a validated copy) ---
+
+    public Scenario withName(String v) { Scenario s = copy(); s.name = v; return s; }
+    public Scenario withId(int v) { Scenario s = copy(); s.id = v; return s; }
+    public Scenario withDays(int v) { Scenario s = copy(); s.days = positive(v, "days"); return s; }
+    public Scenario withReplications(int v) { Scenario s = copy(); s.replications = positive(v, "replications"); return s; }
+    public Scenario withRetailers(int v) { Scenario s = copy(); s.retailers = positive(v, "retailers"); return s; }
+    public Scenario withCommonRandomNumbers(boolean v) { Scenario s = copy(); s.commonRandomNumbers = v; return s; }
+    public Scenario withEngine(Engine v) { Scenario s = copy(); s.engine = v; return s; }
+    public Scenario withAllocation(AllocationPolicy v) { Scenario s = copy(); s.allocation = v; return s; }
+    public Scenario withShards(int v) { Scenario s = copy(); s.shards = positive(v, "shards"); return s; }
+    public Scenario withFusedStep(boolean v) { Scenario s = copy(); s.fusedStep = v; return s; }
+    public Scenario withCostAccrual(CostAccrual v) { Scenario s = copy(); s.costAccrual = v; return s; }
+    public Scenario withSampler(NormalSampler v) { Scenario s = copy(); s.sampler = v; return s; }
+    public Scenario withRelativePrecision(double v) { Scenario s = copy(); s.relativePrecision = nonNegative(v, "relativePrecision"); return s; }
+    public Scenario withPrecisionTarget(PrecisionTarget v) { Scenario s = copy(); s.precisionTarget = v; return s; }
+    public Scenario withMaxReplications(int v) { Scenario s = copy(); s.maxReplications = positive(v, "maxReplications"); return s; }
+    public Scenario withDemandTape(String v) { Scenario s = copy(); s.demandTape = v; return s; }
+    public Scenario withDemandTrace(String v) { Scenario s = copy(); s.demandTrace = v; return s; }
+    public Scenario withTopology(String v) { Scenario s = copy(); s.topology = v; return s; }
+    public Scenario withCorrelationMatrix(String v) { Scenario s = copy(); s.correlationMatrix = v; return s; }
+    public Scenario withCovarianceMatrix(String v) { Scenario s = copy(); s.covarianceMatrix = v; return s; }
+    public Scenario withHoldingCost(double v) { Scenario s = copy(); s.holdingCost = nonNegative(v, "holdingCost"); return s; }
+    public Scenario withBackorderCost(double v) { Scenario s = copy(); s.backorderCost = nonNegative(v, "backorderCost"); return s; }
+    public Scenario withTransportInbound(double v) { Scenario s = copy(); s.transportInbound = nonNegative(v, "transportInbound"); return s; }
+    public Scenario withTransportOutbound(double v) { Scenario s = copy(); s.transportOutbound = nonNegative(v, "transportOutbound"); return s; }
+    public Scenario withTransportDirect(double v) { Scenario s = copy(); s.transportDirect = nonNegative(v, "transportDirect"); return s; }
+    public Scenario withLeadMfgToCw(int v) { Scenario s = copy(); s.leadMfgToCw = positive(v, "leadMfgToCw"); return s; }
+    public Scenario withLeadCwToRetailer(int v) { Scenario s = copy(); s.leadCwToRetailer = positive(v, "leadCwToRetailer"); return s; }
+    public Scenario withLeadMfgToRetailer(int v) { Scenario s = copy(); s.leadMfgToRetailer = positive(v, "leadMfgToRetailer"); return s; }
+    public Scenario withDemandMean(double v) { Scenario s = copy(); s.demandMean = nonNegative(v, "demandMean"); return s; }
+    public Scenario withDemandSigma(double v) { Scenario s = copy(); s.demandSigma = nonNegative(v, "demandSigma"); return s; }
+
+    public Scenario withTargetFillRate(double v) {
+        if (!(v > 0.0 && v < 1.0)) {
+            throw new IllegalArgumentException("targetFillRate must be between 0 and 1.");
+        }
+        Scenario s = copy();
+        s.targetFillRate = v;
+        return s;
+    }
+
+    public Scenario withRho(double v) {
+        if (!(v >= -1.0 && v <= 1.0)) {
+            throw new IllegalArgumentException("rho must be between -1 and 1.");
+        }
+        Scenario s = copy();
+        s.rho = v;
+        return s;
+    }
+
+    // --- Getters ---
+
+    public String getName() { return name; }
+    public int getId() { return id; }
+    public int getDays() { return days; }
+    public int getReplications() { return replications; }
+    public int getRetailers() { return retailers; }
+    public double getTargetFillRate() { return targetFillRate; }
+    public boolean isCommonRandomNumbers() { return commonRandomNumbers; }
+    public Engine getEngine() { return engine; }
+    public AllocationPolicy getAllocation() { return allocation; }
+    public int getShards() { return shards; }
+    public boolean isFusedStep() { return fusedStep; }
+    public CostAccrual getCostAccrual() { return costAccrual; }
+    public NormalSampler getSampler() { return sampler; }
+    public double getRelativePrecision() { return relativePrecision; }
+    public PrecisionTarget getPrecisionTarget() { return precisionTarget; }
+    public int getMaxReplications() { return maxReplications; }
+    public String getDemandTape() { return demandTape; }
+    public String getDemandTrace() { return demandTrace; }
+    public String getTopology() { return topology; }
+    public String getCorrelationMatrix() { return correlationMatrix; }
+    public String getCovarianceMatrix() { return covarianceMatrix; }
+    public double getHoldingCost() { return holdingCost; }
+    public double getBackorderCost() { return backorderCost; }
+    public double getTransportInbound() { return transportInbound; }
+    public double getTransportOutbound() { return transportOutbound; }
+    public double getTransportDirect() { return transportDirect; }
+    public int getLeadMfgToCw() { return leadMfgToCw; }
+    public int getLeadCwToRetailer() { return leadCwToRetailer; }
+    public int getLeadMfgToRetailer() { return leadMfgToRetailer; }
+    public double getDemandMean() { return demandMean; }
+    public double getDemandSigma() { return demandSigma; }
+    public double getRho() { return rho; }
+
+    /**
+     * True if replications are added until the relative precision is met, with getReplications()
+     * as the batch size and getMaxReplications() as the budget.
+     */
+    public boolean isSequential() {
+        return relativePrecision > 0.0;
+    }
+
+    /**
+     * Most replications a run of this scenario can use: maxReplications (at least replications) when
+     * sequential, else replications.
+     */
+    public int getReplicationBudget() {
+        return isSequential() ? Math.max(maxReplications, replications) : replications;
+    }
+
+    /**
+     * Longest lead time on the centralized path (sizes arrival rings).
+     */
+    public int getMaxCentralizedLead() {
+        return Math.max(leadMfgToCw, leadCwToRetailer);
+    }
+
+    private static int positive(int v, String key) {
+        if (v <= 0) {
+            throw new IllegalArgumentException(key + " must be positive.");
+        }
+        return v;
+    }
+
+    private static double nonNegative(double v, String key) {
+        if (!(v >= 0.0)) {
+            throw new IllegalArgumentException(key + " must not be negative.");
+        }
+        return v;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: N=%d, T=%d, R=%d, rho=%.2f, sigma=%.1f, h=%.2f, LT(MFG-CW)=%d, LT(CW-R)=%d, LT(MFG-R)=%d",
+            name, retailers, days, replications, rho, demandSigma, holdingCost, leadMfgToCw, leadCwToRetailer, leadMfgToRetailer);
+    }
+}
@@ -0,0 +1,36 @@
+package inventory;
+
+/**
+ * ScenarioResult.java
+ * Outcome of one scenario: the averaged metrics of both designs and their paired difference.
+ */
+public class ScenarioResult {
+    private final Scenario scenario;
+    private final SummaryMetrics centralized;
+    private final SummaryMetrics decentralized;
+    private final PairedDifference difference;
+
+    public ScenarioResult(Scenario scenario, SummaryMetrics centralized, SummaryMetrics decentralized,
+                          PairedDifference difference) {
+        this.scenario = scenario;
+        this.centralized = centralized;
+        this.decentralized = decentralized;
+        this.difference = difference;
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    public SummaryMetrics getCentralized() {
+        return centralized;
+    }
+
+    public SummaryMetrics getDecentralized() {
+        return decentralized;
+    }
+
+    public PairedDifference getDifference() {
+        return difference;
+    }
+}
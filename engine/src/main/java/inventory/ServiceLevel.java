@@ -0,0 +1,224 @@
+package inventory;
+
+/**
+ * ServiceLevel.java
+ * Standard normal functions for base-stock sizing: the CDF, its inverse, the loss function
+ * G(z) = E[(Z - z)+] and its inverse, plus a fill-rate (beta service) to base-stock solver.
+ *
+ * The CDF and loss function are tabulated once on a fine z-grid and read back with cubic Hermite
+ * interpolation, which is exact to about 1e-10 because both derivatives are known in closed form
+ * (CDF' = pdf, G' = CDF - 1). The inverses find their grid interval by binary search and polish
+ * it with Newton steps, so one base-stock calculation costs well under a microsecond.
+ */
+public final class ServiceLevel {
+
+    private static final double Z_MIN = -8.0;
+    private static final double Z_MAX = 8.0;
+    private static final int STEPS_PER_UNIT = 64;
+    private static final double H = 1.0 / STEPS_PER_UNIT;
+    private static final int SIZE = (int) ((Z_MAX - Z_MIN) * STEPS_PER_UNIT) + 1;
+
+    private static final double[] CDF = new double[SIZE];  // Phi(z_i)
+    private static final double[] LOSS = new double[SIZE]; // G(z_i), decreasing in z.
+
+    static {
+        for (int i = 0; i < SIZE; i++) {
+            double z = Z_MIN + i * H;
+            CDF[i] = exactCdf(z);
+            LOSS[i] = pdf(z) - z * (1.0 - CDF[i]);
+        }
+    }
+
+    private ServiceLevel() {
+    }
+
+    public static double pdf(double z) {
+        return Math.exp(-0.5 * z * z) / Math.sqrt(2.0 * Math.PI);
+    }
+
+    /**
+     * Standard normal CDF Phi(z).
+     */
+    public static double cdf(double z) {
+        if (z <= Z_MIN) return 0.0;
+        if (z >= Z_MAX) return 1.0;
+        int i = Math.min((int) ((z - Z_MIN) * STEPS_PER_UNIT), SIZE - 2);
+        double z0 = Z_MIN + i * H;
+        return hermite(CDF[i], CDF[i + 1], pdf(z0), pdf(z0 + H), (z - z0) / H);
+    }
+
+    /**
+     * Standard normal loss function G(z) = E[(Z - z)+] = pdf(z) - z (1 - Phi(z)).
+     */
+    public static double loss(double z) {
+        if (z <= Z_MIN) return -z;                      // Phi(z) is 0 to double precision.
+        if (z >= Z_MAX) return 0.0;
+        int i = Math.min((int) ((z - Z_MIN) * STEPS_PER_UNIT), SIZE - 2);
+        double z0 = Z_MIN + i * H;
+        return hermite(LOSS[i], LOSS[i + 1], CDF[i] - 1.0, CDF[i + 1] - 1.0, (z - z0) / H);
+    }
+
+    /**
+     * Inverse standard normal CDF: the z with Phi(z) = p, for 0 < p < 1.
+     */
+    public static double inverseCdf(double p) {
+        if (!(p > 0.0 && p < 1.0)) {
+            throw new IllegalArgumentException("p must be between 0 and 1.");
+        }
+        if (p <= CDF[0]) return Z_MIN;
+        if (p >= CDF[SIZE - 1]) return Z_MAX;
+        int lo = 0;
+        int hi = SIZE - 1;
+        while (hi - lo > 1) {                           // CDF[lo] <= p < CDF[hi]
+            int mid = (lo + hi) >>> 1;
+            if (CDF[mid] <= p) lo = mid; else hi = mid;
+        }
+        double z = Z_MIN + (lo + (p - CDF[lo]) / (CDF[hi] - CDF[lo])) * H;
+        for (int k = 0; k < 2; k++) {
+            z -= (cdf(z) - p) / pdf(z);
+        }
+        return z;
+    }
+
+    /**
+     * Inverse loss function: the z with G(z) = g, for g > 0.
+     */
+    public static double inverseLoss(double g) {
+        if (!(g > 0.0)) {
+            throw new IllegalArgumentException("Loss must be positive.");
+        }
+        if (g >= LOSS[0]) return -g;                    // G(z) = -z below the grid.
+        if (g <= LOSS[SIZE - 1]) return Z_MAX;
+        int lo = 0;
+        int hi = SIZE - 1;
+        while (hi - lo > 1) {                           // LOSS[lo] > g >= LOSS[hi]
+            int mid = (lo + hi) >>> 1;
+            if (LOSS[mid] > g) lo = mid; else hi = mid;
+        }
+        double z = Z_MIN + (lo + (LOSS[lo] - g) / (LOSS[lo] - LOSS[hi])) * H;
+        for (int k = 0; k < 2; k++) {
+            double slope = cdf(z) - 1.0;
+            if (slope == 0.0) break;
+            z -= (loss(z) - g) / slope;
+        }
+        return z;
+    }
+
+    /**
+     * Base stock giving fill rate beta for a node facing normal demand (mu, sigma per day) with lead time L.
+     * Each day's expected shortage is (1 - beta) mu, and under a base-stock policy it equals
+     * sigma_L G(z) with sigma_L = sigma sqrt(L), so S = mu L + z sigma_L with z = G^-1((1 - beta) mu / sigma_L).
+     */
+    public static int baseStockForFillRate(double mu, double sigma, int lead, double beta) {
+        double muL = mu * lead;
+        double sigmaL = sigma * Math.sqrt(lead);
+        if (sigmaL == 0.0 || mu == 0.0) {
+            return (int) Math.round(muL);
+        }
+        double z = inverseLoss((1.0 - beta) * mu / sigmaL);
+        return (int) Math.round(muL + z * sigmaL);
+    }
+
+    /**
+     * The same for a node that also waits for its supplier (see SupplierWait): its lead-time demand is
+     * normal (mean, sd), plus, with probability p, an independent normal (waitMean, waitVariance) backlog.
+     * Without a wait this is the closed form above; the mixture has no closed-form inverse, so S is
+     * then found by bisection on the expected shortage and rounded up to the smallest integer base
+     * stock that meets the target (rounding to nearest leaves the CW's retailers just short of it).
+     */
+    public static int baseStockForFillRate(double mu, double mean, double sd, double p,
+                                           double waitMean, double waitVariance, double beta) {
+        double target = (1.0 - beta) * mu;
+        if (p == 0.0) {
+            if (sd == 0.0 || mu == 0.0) {
+                return (int) Math.round(mean);
+            }
+            return (int) Math.round(mean + inverseLoss(target / sd) * sd);
+        }
+        double sdWait = Math.sqrt(sd * sd + waitVariance);
+        if (mu == 0.0) {
+            return (int) Math.round(mean + p * waitMean);
+        }
+        // Expected backorders fall from about mean + p waitMean at S = 0 to 0; bracket the target and halve.
+        double lo = 0.0;
+        double hi = mean + waitMean + Z_MAX * sdWait;
+        for (int k = 0; k < 60; k++) {
+            double s = 0.5 * (lo + hi);
+            double shortage = p * expectedBackorders(mean + waitMean, sdWait, s)
+                            + (1.0 - p) * expectedBackorders(mean, sd, s);
+            if (shortage > target) lo = s; else hi = s;
+        }
+        return (int) Math.ceil(hi);
+    }
+
+    /**
+     * Expected backorders E[(D - S)+] of a node with base stock S whose lead-time demand D is normal
+     * (mean, sd): sd G(z) with z = (S - mean) / sd.
+     */
+    public static double expectedBackorders(double mean, double sd, double baseStock) {
+        if (sd == 0.0) {
+            return Math.max(0.0, mean - baseStock);
+        }
+        return sd * loss((baseStock - mean) / sd);
+    }
+
+    /**
+     * Variance of the backorders (D - S)+ for the same node. With z = (S - mean) / sd,
+     * E[(Z - z)+^2] = (1 + z^2)(1 - Phi(z)) - z pdf(z).
+     */
+    public static double backorderVariance(double mean, double sd, double baseStock) {
+        if (sd == 0.0) {
+            return 0.0;
+        }
+        double z = (baseStock - mean) / sd;
+        double second = sd * sd * ((1.0 + z * z) * (1.0 - cdf(z)) - z * pdf(z));
+        double first = expectedBackorders(mean, sd, baseStock);
+        return Math.max(0.0, second - first * first);
+    }
+
+    private static double hermite(double y0, double y1, double d0, double d1, double t) {
+        double t2 = t * t;
+        double t3 = t2 * t;
+        return (2 * t3 - 3 * t2 + 1) * y0 + (t3 - 2 * t2 + t) * H * d0
+             + (-2 * t3 + 3 * t2) * y1 + (t3 - t2) * H * d1;
+    }
+
+    /**
+     * Phi(z) from erfc to near double precision; only used to build the table.
+     */
+    private static double exactCdf(double z) {
+        return 0.5 * erfc(-z / Math.sqrt(2.0));
+    }
+
+    private static double erfc(double x) {
+        if (x < 0) return 2.0 - erfc(-x);
+        // Taylor series of erf for small x, continued fraction for the tail.
+        if (x < 2.0) {
+            double sum = x;
+            double term = x;
+            double x2 = x * x;
+            for (int n = 1; n < 100; n++) {
+                term *= -x2 / n;
+                double add = term / (2 * n + 1);
+                sum += add;
+                if (Math.abs(add) < 1e-17 * Math.abs(sum)) break;
+            }
+            return 1.0 - 2.0 / Math.sqrt(Math.PI) * sum;
+        }
+        // Lentz evaluation of erfc(x) = exp(-x^2)/sqrt(pi) * 1/(x + 1/2/(x + 1/(x + 3/2/(x + ...)))).
+        double f = x;
+        double c = x;
+        double d = 0.0;
+        for (int n = 1; n < 200; n++) {
+            double a = n / 2.0;
+            d = x + a * d;
+            d = d == 0.0 ? 1e-300 : 1.0 / d;
+            c = x + a / c;
+            if (c == 0.0) c = 1e-300;
+            double delta = c * d;
+            f *= delta;
+            if (Math.abs(delta - 1.0) < 1e-16) break;
+        }
+        return Math.exp(-x * x) / Math.sqrt(Math.PI) / f;
+    }
+}
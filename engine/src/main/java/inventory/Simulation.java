@@ -0,0 +1,815 @@
+package inventory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class Simulation {
+    private static final int DESIGN_CENTRALIZED = 0;
+    private static final int DESIGN_DECENTRALIZED = 1;
+
+    private final ReplicationExecutor executor;
+    private final RandomStreams streams;
+    private final Map<String, DemandTape> tapes = new ConcurrentHashMap<>(); // Opened once, shared by all scenarios.
+    private final Map<String, TraceDemandSource.Index> traces = new ConcurrentHashMap<>(); // Row offsets, scanned once per file.
+    private final Map<String, Topology> topologies = new ConcurrentHashMap<>(); // Parsed once, read-only afterwards.
+    private final Map<String, CholeskyFactor> factors = new ConcurrentHashMap<>(); // Demand correlation, factored once.
+    private final Map<Scenario, CompiledNetwork[]> networks =
+        Collections.synchronizedMap(new WeakHashMap<>()); // Per scenario and design; dropped with the scenario.
+
+    public Simulation() {
+        this(new ReplicationExecutor(Params.N_THREADS), new RandomStreams(Params.MASTER_SEED));
+    }
+
+    public Simulation(ReplicationExecutor executor, RandomStreams streams) {
+        this.executor = executor;
+        this.streams = streams;
+    }
+
+    /**
+     * Calculates the Inventory Position (IP) for a node.
+     * IP = Stock on Hand + Stock on Order - Backorder Liability
+     */
+    int inventoryPosition(NodeState node) {
+        // Stock on Order is kept as a running total, so this is O(1)
+        return node.getOnHand() + node.getInTransitQty() - node.getBackorder();
+    }
+
+    /**
+     * Executes the "Arrivals" step of the daily cycle.
+     * Moves arrived quantity from 'in_transit' to 'on_hand' inventory.
+     */
+    void receiveShipments(NodeState node, int day) {
+        node.setOnHand(node.getOnHand() + node.receiveInTransit(day)); // Slot for this day is emptied.
+    }
+
+    /**
+     * Uses new inventory to fill old customer orders first. 
+     */
+    void clearBackordersWithReceipt(NodeState node) {
+        if (node.getBackorder() > 0 && node.getOnHand() > 0) {
+            int cleared = Math.min(node.getOnHand(), node.getBackorder());
+            node.setOnHand(node.getOnHand() - cleared); // Use available stock to clear backlog. 
+            node.setBackorder(node.getBackorder() - cleared); // Reduce the backorder liability.
+        }
+    }
+
+    /**
+     * Handles customer interaction: demand realization and service.
+     */
+    void fulfillDemand(NodeState node, int demand, Metrics metrics) {
+        int served = Math.min(node.getOnHand(), demand); // Serve up to the amount available or the demand. 
+        node.setOnHand(node.getOnHand() - served);
+        metrics.addFillImmediate(served); // Track units served immediately. 
+
+        int shortage = 0;
+        if (served < demand) {
+            shortage = demand - served;
+            node.setBackorder(node.getBackorder() + shortage); // Add unserved demand to the backorder queue. 
+        }
+        metrics.addBackordersCreated(shortage);// Track total units that became a backorder. 
+        metrics.addDemandTotal(demand); // Record all demand for service metric calculations. 
+    }
+
+    /**
+     * Implements the (S-1, S) or Base-Stock policy.
+     */
+    void placeBaseStockOrder(NodeState node, NodeState supplier, int lead, double cPerUnit, int today, Metrics metrics) {
+        int ip = inventoryPosition(node);
+        int qty = node.getBaseStock() - ip; // Order quantity needed to bring IP back up to the target S. 
+
+        if (qty > 0) {
+            // Track the shipment in the receiver's pipeline (arrives on today + lead)
+            node.addInTransit(today, lead, qty);
+
+            // Record costs and events
+            metrics.addTransportCost(qty, cPerUnit); // Immediately record the transportation cost. 
+            metrics.incrementOrdersCount(); // Track how many times an order event occurs. 
+            // For audit/debug: node.setOrdersPlacedToday(qty); 
+        } else {
+             // Only ship positive quantities. 
+        }
+    }
+
+    /**
+     * Base-stock review of a retailer supplied by the CW. The order is only booked here; the CW ships
+     * it in shipFromCw, in full or rationed. Units the CW still owes count as stock on order.
+     */
+    void placeOrderWithCw(NodeState node, int retailer, CwOrderBook book, Metrics metrics) {
+        int qty = node.getBaseStock() - (inventoryPosition(node) + book.getOwed(retailer));
+        if (qty > 0) {
+            book.order(retailer, qty);
+            metrics.incrementOrdersCount();
+        }
+    }
+
+    /**
+     * The CW ships what it owes from its on-hand stock (rationed by the book's policy when short).
+     * Shipments are charged outbound transport and arrive after the CW-to-retailer lead time; what
+     * stays unshipped is the CW's backorder, so the CW's own review sees it in its inventory position.
+     */
+    void shipFromCw(NodeState cw, List<NodeState> retailers, CwOrderBook book, int day, Scenario sc, Metrics metrics) {
+        int n = retailers.size();
+        if (book.needsPositions(cw.getOnHand())) {
+            for (int i = 0; i < n; i++) {
+                book.setPosition(i, inventoryPosition(retailers.get(i)));
+            }
+        }
+        int total = book.allocate(cw.getOnHand());
+        cw.setOnHand(cw.getOnHand() - total);
+        cw.setBackorder(book.getTotalOwed());
+        if (total == 0) return;
+        for (int i = 0; i < n; i++) {
+            int qty = book.getShipped(i);
+            if (qty > 0) {
+                retailers.get(i).addInTransit(day, sc.getLeadCwToRetailer(), qty);
+                metrics.addTransportCost(qty, sc.getTransportOutbound());
+            }
+        }
+    }
+
+    /**
+     * This is the "cost accounting" step at the end of the day. 
+     */
+    void accrueDailyCosts(List<NodeState> allNodes, Metrics metrics, double customHolding, double backorderCost) {
+        for (int i = 0; i < allNodes.size(); i++) {
+            accrueNodeCosts(allNodes.get(i), metrics, customHolding, backorderCost);
+        }
+    }
+
+    void accrueNodeCosts(NodeState node, Metrics metrics, double customHolding, double backorderCost) {
+        metrics.addHoldingCost(node.getOnHand(), customHolding);
+        metrics.addBackorderCost(node.getBackorder(), backorderCost);
+    }
+
+    /**
+     * Sets each node's base stock so that it reaches the scenario's target fill rate on its own
+     * lead-time demand (ServiceLevel.baseStockForFillRate). The CW sees the pooled demand of all retailers.
+     * Sized on its own, the CW is short often enough that retailers wait for it, so the two echelons are
+     * sized together: each retailer covers its demand over the CW-to-retailer transit plus its share of
+     * the CW's backlog (see SupplierWait). Both designs then meet the target before costs are compared.
+     * With a covariance matrix each retailer is sized on its own variance, and with either matrix the
+     * pooled variance is the sum of the matrix's entries instead of the equicorrelation formula.
+     */
+    public void computeBaseStocksAdvanced(List<NodeState> retailers, NodeState cw, boolean centralized, Scenario sc) {
+        double mu = sc.getDemandMean();
+        double sigma = sc.getDemandSigma();
+        double beta = sc.getTargetFillRate();
+        CholeskyFactor matrix = sc.getCorrelationMatrix() != null || sc.getCovarianceMatrix() != null
+            ? demandFactor(sc) : null;
+        boolean covariance = matrix != null && sc.getCovarianceMatrix() != null;
+
+        int L = centralized ? sc.getLeadCwToRetailer() : sc.getLeadMfgToRetailer();
+        int N = retailers.size();
+        boolean waits = centralized && cw != null;
+        double meanL0 = 0.0;
+        double sdL0 = 0.0;
+        if (waits) {
+            // Analytical Risk Pooling Formula 
+            double sigmaAgg = sigma * Math.sqrt(N + sc.getRho() * N * (N - 1));
+            if (matrix != null) {
+                sigmaAgg = Math.sqrt(Math.max(0.0, matrix.sumOfEntries())) * (covariance ? 1.0 : sigma);
+            }
+            double muAgg = N * mu;
+            int L0 = sc.getLeadMfgToCw();
+            cw.setBaseStock(ServiceLevel.baseStockForFillRate(muAgg, sigmaAgg, L0, beta));
+            meanL0 = muAgg * L0;
+            sdL0 = sigmaAgg * Math.sqrt(L0);
+        }
+
+        SupplierWait wait = waits ? SupplierWait.of(meanL0, sdL0, cw.getBaseStock(), N, mu, sigma, sc.getAllocation())
+                                  : SupplierWait.NONE;
+        int sI = wait.baseStock(mu, mu * L, sigma * Math.sqrt(L), beta);
+        for (int i = 0; i < N; i++) {
+            if (!covariance) {
+                retailers.get(i).setBaseStock(sI);
+                continue;
+            }
+            double sigmaI = Math.sqrt(matrix.diagonal(i));
+            SupplierWait waitI = waits ? SupplierWait.of(meanL0, sdL0, cw.getBaseStock(), N, mu, sigmaI, sc.getAllocation())
+                                       : SupplierWait.NONE;
+            retailers.get(i).setBaseStock(waitI.baseStock(mu, mu * L, sigmaI * Math.sqrt(L), beta));
+        }
+    }
+
+    // --- Replications ---
+
+    public Metrics runCentralizedReplication(DemandSource demand, List<NodeState> retailers, NodeState cw, NodeState mfg, Scenario sc) {
+        Metrics metrics = new Metrics();
+        int[] demandToday = new int[retailers.size()];
+        CwOrderBook book = new CwOrderBook(retailers.size());
+        book.reset(sc.getAllocation());
+        CostLedger ledger = newLedger(retailers, sc);
+
+        for (int day = 1; day <= sc.getDays(); day++) {
+            if (sc.isFusedStep()) {
+                runCentralizedDayFused(day, demand, demandToday, retailers, cw, mfg, book, metrics, sc, ledger);
+            } else {
+                runCentralizedDay(day, demand, demandToday, retailers, cw, mfg, book, metrics, sc, ledger);
+            }
+        }
+        if (ledger != null) {
+            ledger.accrueTo(0, sc.getDays() + 1, cw.getOnHand(), 0, metrics);
+            closeLedger(ledger, retailers, sc.getDays(), metrics);
+        }
+        return metrics;
+    }
+
+    public Metrics runDecentralizedReplication(DemandSource demand, List<NodeState> retailers, NodeState mfg, Scenario sc) {
+        Metrics metrics = new Metrics();
+        int[] demandToday = new int[retailers.size()];
+        CostLedger ledger = newLedger(retailers, sc);
+        for (int day = 1; day <= sc.getDays(); day++) {
+            if (sc.isFusedStep()) {
+                runDecentralizedDayFused(day, demand, demandToday, retailers, mfg, metrics, sc, ledger);
+            } else {
+                runDecentralizedDay(day, demand, demandToday, retailers, mfg, metrics, sc, ledger);
+            }
+        }
+        if (ledger != null) closeLedger(ledger, retailers, sc.getDays(), metrics);
+        return metrics;
+    }
+
+    /**
+     * The ledger for CostAccrual.LAZY (CW at 0, retailer i at i + 1), or null when costs accrue daily.
+     */
+    private static CostLedger newLedger(List<NodeState> retailers, Scenario sc) {
+        if (sc.getCostAccrual() != CostAccrual.LAZY) return null;
+        CostLedger ledger = new CostLedger(retailers.size() + 1);
+        ledger.reset(sc.getHoldingCost(), sc.getBackorderCost());
+        return ledger;
+    }
+
+    /**
+     * Books each retailer's days since its last change, through the last day.
+     */
+    private static void closeLedger(CostLedger ledger, List<NodeState> retailers, int days, Metrics metrics) {
+        for (int i = 0; i < retailers.size(); i++) {
+            NodeState r = retailers.get(i);
+            ledger.accrueTo(i + 1, days + 1, r.getOnHand(), r.getBackorder(), metrics);
+        }
+    }
+
+    /**
+     * One day of the centralized cycle. Retailers order from the CW, which ships from its own stock
+     * and re-orders from the MFG after seeing the day's orders. Units the CW owes retailers are not
+     * customer backorders, so the CW only pays holding cost. Allocates nothing: nodes, buffers and
+     * metrics are all reused. With a ledger (CostAccrual.LAZY) a node's costs are only booked on
+     * the days its level changes; null books every node every day.
+     */
+    void runCentralizedDay(int day, DemandSource demand, int[] demandToday, List<NodeState> retailers,
+                           NodeState cw, NodeState mfg, CwOrderBook book, Metrics metrics, Scenario sc,
+                           CostLedger ledger) {
+        int n = retailers.size();
+        int cwOnHand = cw.getOnHand();
+        receiveShipments(cw, day); // Its backorders are served by shipFromCw, after today's orders are in.
+        if (ledger != null) accrueCwIfChanged(ledger, cw, cwOnHand, day, metrics);
+        for (int i = 0; i < n; i++) {
+            NodeState r = retailers.get(i);
+            int onHand = r.getOnHand();
+            int backorder = r.getBackorder();
+            receiveShipments(r, day);
+            clearBackordersWithReceipt(r);
+            if (ledger != null) accrueIfChanged(ledger, i, r, onHand, backorder, day, metrics);
+        }
+        demand.fillDay(day, demandToday);
+        for (int i = 0; i < n; i++) {
+            NodeState r = retailers.get(i);
+            int onHand = r.getOnHand();
+            int backorder = r.getBackorder();
+            fulfillDemand(r, demandToday[i], metrics);
+            if (ledger != null) accrueIfChanged(ledger, i, r, onHand, backorder, day, metrics);
+        }
+        for (int i = 0; i < n; i++) {
+            placeOrderWithCw(retailers.get(i), i, book, metrics);
+        }
+        cwOnHand = cw.getOnHand();
+        shipFromCw(cw, retailers, book, day, sc, metrics);
+        if (ledger != null) accrueCwIfChanged(ledger, cw, cwOnHand, day, metrics);
+        placeBaseStockOrder(cw, mfg, sc.getLeadMfgToCw(), sc.getTransportInbound(), day, metrics);
+        if (ledger == null) {
+            metrics.addHoldingCost(cw.getOnHand(), sc.getHoldingCost());
+            accrueDailyCosts(retailers, metrics, sc.getHoldingCost(), sc.getBackorderCost());
+        }
+    }
+
+    /**
+     * The same day as runCentralizedDay, with each retailer's arrivals, clearing, service, review and
+     * costs done in one visit. Nothing a retailer does depends on another retailer the same day, and the
+     * CW only ships after all of them have ordered, so the result is identical; shipping adds to the
+     * retailers' pipelines only, not to the on-hand and backorders their costs are charged on.
+     */
+    void runCentralizedDayFused(int day, DemandSource demand, int[] demandToday, List<NodeState> retailers,
+                                NodeState cw, NodeState mfg, CwOrderBook book, Metrics metrics, Scenario sc,
+                                CostLedger ledger) {
+        int n = retailers.size();
+        double holding = sc.getHoldingCost();
+        double backorderCost = sc.getBackorderCost();
+        int cwOnHand = cw.getOnHand();
+        receiveShipments(cw, day);
+        if (ledger != null) accrueCwIfChanged(ledger, cw, cwOnHand, day, metrics);
+        demand.fillDay(day, demandToday);
+        for (int i = 0; i < n; i++) {
+            NodeState r = retailers.get(i);
+            int onHand = r.getOnHand();
+            int backorder = r.getBackorder();
+            receiveShipments(r, day);
+            clearBackordersWithReceipt(r);
+            fulfillDemand(r, demandToday[i], metrics);
+            placeOrderWithCw(r, i, book, metrics);
+            if (ledger != null) {
+                accrueIfChanged(ledger, i, r, onHand, backorder, day, metrics);
+            } else {
+                accrueNodeCosts(r, metrics, holding, backorderCost);
+            }
+        }
+        cwOnHand = cw.getOnHand();
+        shipFromCw(cw, retailers, book, day, sc, metrics);
+        if (ledger != null) accrueCwIfChanged(ledger, cw, cwOnHand, day, metrics);
+        placeBaseStockOrder(cw, mfg, sc.getLeadMfgToCw(), sc.getTransportInbound(), day, metrics);
+        if (ledger == null) metrics.addHoldingCost(cw.getOnHand(), holding);
+    }
+
+    /**
+     * One day of the decentralized cycle (ledger as in runCentralizedDay). Allocates nothing.
+     */
+    void runDecentralizedDay(int day, DemandSource demand, int[] demandToday, List<NodeState> retailers,
+                             NodeState mfg, Metrics metrics, Scenario sc, CostLedger ledger) {
+        int n = retailers.size();
+        for (int i = 0; i < n; i++) {
+            NodeState r = retailers.get(i);
+            int onHand = r.getOnHand();
+            int backorder = r.getBackorder();
+            receiveShipments(r, day);
+            clearBackordersWithReceipt(r);
+            if (ledger != null) accrueIfChanged(ledger, i, r, onHand, backorder, day, metrics);
+        }
+        demand.fillDay(day, demandToday);
+        for (int i = 0; i < n; i++) {
+            NodeState r = retailers.get(i);
+            int onHand = r.getOnHand();
+            int backorder = r.getBackorder();
+            fulfillDemand(r, demandToday[i], metrics);
+            if (ledger != null) accrueIfChanged(ledger, i, r, onHand, backorder, day, metrics);
+        }
+        for (int i = 0; i < n; i++) {
+            placeBaseStockOrder(retailers.get(i), mfg, sc.getLeadMfgToRetailer(), sc.getTransportDirect(), day, metrics);
+        }
+        if (ledger == null) accrueDailyCosts(retailers, metrics, sc.getHoldingCost(), sc.getBackorderCost());
+    }
+
+    /**
+     * The same day as runDecentralizedDay in a single pass over the retailers.
+     */
+    void runDecentralizedDayFused(int day, DemandSource demand, int[] demandToday, List<NodeState> retailers,
+                                  NodeState mfg, Metrics metrics, Scenario sc, CostLedger ledger) {
+        int n = retailers.size();
+        int lead = sc.getLeadMfgToRetailer();
+        double cPerUnit = sc.getTransportDirect();
+        double holding = sc.getHoldingCost();
+        double backorderCost = sc.getBackorderCost();
+        demand.fillDay(day, demandToday);
+        for (int i = 0; i < n; i++) {
+            NodeState r = retailers.get(i);
+            int onHand = r.getOnHand();
+            int backorder = r.getBackorder();
+            receiveShipments(r, day);
+            clearBackordersWithReceipt(r);
+            fulfillDemand(r, demandToday[i], metrics);
+            placeBaseStockOrder(r, mfg, lead, cPerUnit, day, metrics);
+            if (ledger != null) {
+                accrueIfChanged(ledger, i, r, onHand, backorder, day, metrics);
+            } else {
+                accrueNodeCosts(r, metrics, holding, backorderCost);
+            }
+        }
+    }
+
+    /**
+     * Lazy accrual: once retailer i's level differs from its level before a step, books its days up to
+     * yesterday at the old level. Costs only see end-of-day levels, so the first change of a day is the
+     * one that counts (later calls that day book nothing), and a day with no net change books nothing.
+     */
+    private static void accrueIfChanged(CostLedger ledger, int i, NodeState r, int onHand, int backorder,
+                                        int day, Metrics metrics) {
+        if (r.getOnHand() != onHand || r.getBackorder() != backorder) {
+            ledger.accrueTo(i + 1, day, onHand, backorder, metrics);
+        }
+    }
+
+    /**
+     * The same for the CW, which pays holding cost only: what it owes retailers is not a customer backorder.
+     */
+    private static void accrueCwIfChanged(CostLedger ledger, NodeState cw, int onHand, int day, Metrics metrics) {
+        if (cw.getOnHand() != onHand) {
+            ledger.accrueTo(0, day, onHand, 0, metrics);
+        }
+    }
+
+    /**
+     * The overarching function that runs both scenarios and compares results.
+     */
+    public void runExperiment() {
+        System.out.println("--- Phase 7: Validation and Stress Testing ---");
+        Scenario base = Scenario.defaults();
+
+        System.out.println("\nTEST 1: Independent Demand (Rho = 0.0)");
+        printResult(runScenario(base.withName("Test 1").withId(1).withRho(0.0)));
+
+        System.out.println("\nTEST 2: Correlated Demand (Rho = 1.0)");
+        printResult(runScenario(base.withName("Test 2").withId(2).withRho(1.0)));
+
+        System.out.println("\nTEST 3: Normalized Lead Times (Path LT = 4 days)");
+        printResult(runScenario(base.withName("Test 3").withId(3).withRho(0.0).withLeadMfgToRetailer(4)));
+
+        System.out.println("\nTEST 4: High Demand Variability (Sigma = 60)");
+        printResult(runScenario(base.withName("Test 4").withId(4).withRho(0.0).withDemandSigma(60.0)));
+
+        System.out.println("\nTEST 5: High Holding Cost ($1.00)");
+        printResult(runScenario(base.withName("Test 5").withId(5).withRho(0.0).withHoldingCost(1.00)));
+    }
+
+    /**
+     * Runs all replications of both designs for one scenario. Safe to call from several threads at once.
+     * In sequential mode the replication count is chosen by the stopping rule in runSequential.
+     */
+    public ScenarioResult runScenario(Scenario sc) {
+        ReplicationStats stats = sc.isSequential() ? runSequential(sc) : runReplications(sc, 0, sc.getReplications());
+        return stats.toResult(sc);
+    }
+
+    /**
+     * Runs replications first + 1 .. first + count in parallel.
+     */
+    private ReplicationStats runReplications(Scenario sc, int first, int count) {
+        // Every replication builds its own node graph, so replications can run on any thread.
+        // Each result is folded into a streaming accumulator; no per-replication Metrics are kept.
+        return executor.reduce(count, i -> {
+            Metrics[] pair = runReplicationPair(sc, first + i + 1);
+            return new ReplicationStats(sc.getDays()).add(pair[0], pair[1]);
+        }, ReplicationStats::merge);
+    }
+
+    /**
+     * Adds parallel batches of replications until the watched confidence half-width is within the
+     * relative precision or the replication budget is spent. Each batch is sized from the current
+     * variance estimate (at least getReplications(), at most doubling the total), so clear-cut
+     * scenarios stop after the first batch and ambiguous ones do not creep up a few runs at a time.
+     * Replication numbers and batch sizes depend only on the results, so the run is reproducible.
+     */
+    private ReplicationStats runSequential(Scenario sc) {
+        int budget = sc.getReplicationBudget();
+        int done = sc.getReplications();
+        ReplicationStats stats = runReplications(sc, 0, done);
+        double rel = stats.relativeHalfWidth(sc.getPrecisionTarget());
+        while (done < budget && !(rel <= sc.getRelativePrecision())) {
+            // Half-width shrinks like 1/sqrt(n): n_needed ~ n * (rel / precision)^2.
+            double ratio = rel / sc.getRelativePrecision();
+            double needed = Double.isFinite(ratio) ? Math.ceil(done * ratio * ratio) : Double.MAX_VALUE;
+            int batch = (int) Math.min(Math.max(needed - done, sc.getReplications()), done);
+            batch = Math.min(batch, budget - done);
+            stats.merge(runReplications(sc, done, batch));
+            done += batch;
+            rel = stats.relativeHalfWidth(sc.getPrecisionTarget());
+        }
+        return stats;
+    }
+
+    /**
+     * Runs replication 'rep' of both designs; returns {centralized, decentralized}.
+     */
+    Metrics[] runReplicationPair(Scenario sc, int rep) {
+        if (sc.getDemandTrace() != null && sc.getDemandTape() == null) {
+            // Each design streams its own reader over the same window of the history.
+            try (TraceDemandSource demandC = openTrace(sc, rep); TraceDemandSource demandD = openTrace(sc, rep)) {
+                return new Metrics[] {runCentralizedDesign(demandC, sc), runDecentralizedDesign(demandD, sc)};
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        DemandSource demandC;
+        DemandSource demandD;
+        if (sc.getDemandTape() != null) {
+            // Both designs replay the recorded demand.
+            DemandTape tape = demandTape(sc);
+            demandC = tape.replication(rep);
+            demandD = tape.replication(rep);
+        } else if (sc.isCommonRandomNumbers()) {
+            // Both designs replay the same pre-generated demand.
+            long seed = streams.replicationSeed(sc.getId(), DESIGN_CENTRALIZED, rep);
+            DemandMatrix matrix = DemandMatrix.generate(newDemandSource(seed, sc), sc.getDays(), sc.getRetailers());
+            demandC = matrix;
+            demandD = matrix;
+        } else {
+            demandC = newDemandSource(streams.replicationSeed(sc.getId(), DESIGN_CENTRALIZED, rep), sc);
+            demandD = newDemandSource(streams.replicationSeed(sc.getId(), DESIGN_DECENTRALIZED, rep), sc);
+        }
+        return new Metrics[] {runCentralizedDesign(demandC, sc), runDecentralizedDesign(demandD, sc)};
+    }
+
+    /**
+     * Builds a fresh node graph for one centralized replication and runs it on the scenario's engine.
+     */
+    private Metrics runCentralizedDesign(DemandSource demand, Scenario sc) {
+        if (sc.getTopology() != null) {
+            // A declared network takes the centralized design's place.
+            return network(sc, DESIGN_CENTRALIZED, () -> topology(sc)).run(demand, sc);
+        }
+        List<NodeState> retailers = newRetailers(sc);
+        NodeState cw = new NodeState(NodeState.CW);
+        computeBaseStocksAdvanced(retailers, cw, true, sc);
+        return runCentralizedNodes(demand, retailers, cw, sc);
+    }
+
+    /**
+     * Runs one centralized replication with the given base stocks instead of the formula's.
+     */
+    Metrics runCentralizedDesign(DemandSource demand, Scenario sc, int[] retailerBaseStocks, int cwBaseStock) {
+        if (sc.getTopology() != null) {
+            throw new IllegalArgumentException("Retailer and CW base stocks do not apply to a declared topology.");
+        }
+        List<NodeState> retailers = newRetailers(sc);
+        NodeState cw = new NodeState(NodeState.CW);
+        setBaseStocks(retailers, retailerBaseStocks);
+        cw.setBaseStock(cwBaseStock);
+        return runCentralizedNodes(demand, retailers, cw, sc);
+    }
+
+    private Metrics runCentralizedNodes(DemandSource demand, List<NodeState> retailers, NodeState cw, Scenario sc) {
+        if (sc.getEngine() == Engine.ARRAY) {
+            ArrayKernel kernel = new ArrayKernel(retailers.size(), sc.getMaxCentralizedLead());
+            kernel.loadBaseStocks(retailers, cw);
+            kernel.setShards(executor, sc.getShards());
+            return kernel.runCentralized(demand, sc);
+        }
+        if (sc.getEngine() == Engine.EVENT) {
+            EventEngine engine = new EventEngine(retailers.size(), sc.getMaxCentralizedLead());
+            engine.loadBaseStocks(retailers, cw);
+            return engine.runCentralized(demand, sc);
+        }
+        if (sc.getEngine() == Engine.NETWORK) {
+            CompiledNetwork network = network(sc, DESIGN_CENTRALIZED, () -> Topology.of(sc, retailers, cw));
+            return network.run(demand, Topology.baseStocksOf(retailers, cw), sc);
+        }
+        resetNodes(cw, retailers);
+        return runCentralizedReplication(demand, retailers, cw, new NodeState(NodeState.MFG), sc);
+    }
+
+    /**
+     * Builds a fresh node graph for one decentralized replication and runs it on the scenario's engine.
+     */
+    private Metrics runDecentralizedDesign(DemandSource demand, Scenario sc) {
+        List<NodeState> retailers = newRetailers(sc);
+        computeBaseStocksAdvanced(retailers, null, false, sc);
+        return runDecentralizedNodes(demand, retailers, sc);
+    }
+
+    /**
+     * Runs one decentralized replication with the given retailer base stocks instead of the formula's.
+     */
+    Metrics runDecentralizedDesign(DemandSource demand, Scenario sc, int[] retailerBaseStocks) {
+        List<NodeState> retailers = newRetailers(sc);
+        setBaseStocks(retailers, retailerBaseStocks);
+        return runDecentralizedNodes(demand, retailers, sc);
+    }
+
+    /**
+     * Sets retailer i's base stock to levels[i - 1].
+     */
+    private static void setBaseStocks(List<NodeState> retailers, int[] levels) {
+        if (levels.length != retailers.size()) {
+            throw new IllegalArgumentException("Expected " + retailers.size() + " retailer base stocks, got " + levels.length);
+        }
+        for (int i = 0; i < levels.length; i++) retailers.get(i).setBaseStock(levels[i]);
+    }
+
+    private Metrics runDecentralizedNodes(DemandSource demand, List<NodeState> retailers, Scenario sc) {
+        if (sc.getEngine() == Engine.ARRAY) {
+            ArrayKernel kernel = new ArrayKernel(retailers.size(), sc.getLeadMfgToRetailer());
+            kernel.loadBaseStocks(retailers, null);
+            kernel.setShards(executor, sc.getShards());
+            return kernel.runDecentralized(demand, sc);
+        }
+        if (sc.getEngine() == Engine.EVENT) {
+            EventEngine engine = new EventEngine(retailers.size(), sc.getLeadMfgToRetailer());
+            engine.loadBaseStocks(retailers, null);
+            return engine.runDecentralized(demand, sc);
+        }
+        if (sc.getEngine() == Engine.NETWORK) {
+            CompiledNetwork network = network(sc, DESIGN_DECENTRALIZED, () -> Topology.of(sc, retailers, null));
+            return network.run(demand, Topology.baseStocksOf(retailers, null), sc);
+        }
+        resetNodes(null, retailers);
+        return runDecentralizedReplication(demand, retailers, new NodeState(NodeState.MFG), sc);
+    }
+
+    /**
+     * The scenario's network for one design, compiled on first use and shared by all its replications.
+     * A declared topology takes the centralized design's slot. The standard designs depend only on the
+     * number of nodes and the scenario's lanes, so the nodes of any replication may build them; their
+     * base stocks are loaded per run.
+     */
+    private CompiledNetwork network(Scenario sc, int design, Supplier<Topology> build) {
+        CompiledNetwork[] designs = networks.computeIfAbsent(sc, k -> new CompiledNetwork[2]);
+        synchronized (designs) {
+            if (designs[design] == null) {
+                designs[design] = new CompiledNetwork(build.get(), sc);
+            }
+            return designs[design];
+        }
+    }
+
+    /**
+     * The demand of replication 'rep' as both designs see it under common random numbers.
+     * Regenerated from its seed on every call, so repeated evaluations share demand without storing it.
+     */
+    DemandSource replicationDemand(Scenario sc, int rep) {
+        return newDemandSource(streams.replicationSeed(sc.getId(), DESIGN_CENTRALIZED, rep), sc);
+    }
+
+    /**
+     * Records the scenario's replications (as both designs see them under common random numbers) to a tape file.
+     */
+    public void writeDemandTape(Scenario sc, Path file) throws IOException {
+        DemandTape.write(file, sc, streams.getMasterSeed(), rep -> replicationDemand(sc, rep));
+    }
+
+    /**
+     * Runs body on the demand of replication 'rep' as both designs see it under common random numbers:
+     * the scenario's tape or trace if it names one, else the generated demand.
+     */
+    <T> T withReplicationDemand(Scenario sc, int rep, Function<DemandSource, T> body) {
+        if (sc.getDemandTape() != null) {
+            return body.apply(demandTape(sc).replication(rep));
+        }
+        if (sc.getDemandTrace() != null) {
+            try (TraceDemandSource trace = openTrace(sc, rep)) {
+                return body.apply(trace);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return body.apply(replicationDemand(sc, rep));
+    }
+
+    /**
+     * Replication 'rep' replays the history from day (rep - 1) * days on, wrapping at its end.
+     */
+    private TraceDemandSource openTrace(Scenario sc, int rep) throws IOException {
+        TraceDemandSource.Index index = traces.computeIfAbsent(sc.getDemandTrace() + ":" + sc.getRetailers(), k -> {
+            try {
+                return TraceDemandSource.index(Paths.get(sc.getDemandTrace()), sc.getRetailers());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return TraceDemandSource.open(index, (long) (rep - 1) * sc.getDays());
+    }
+
+    private DemandTape demandTape(Scenario sc) {
+        DemandTape tape = tapes.computeIfAbsent(sc.getDemandTape(), f -> {
+            try {
+                return DemandTape.open(Paths.get(f));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        tape.checkCovers(sc);
+        return tape;
+    }
+
+    private Topology topology(Scenario sc) {
+        return topologies.computeIfAbsent(sc.getTopology(), f -> {
+            try {
+                return Topology.parse(Paths.get(f));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Synthetic demand for one replication; honours the scenario's correlation or covariance matrix,
+     * or else its pairwise correlation rho.
+     */
+    DemandSource newDemandSource(long seed, Scenario sc) {
+        CholeskyFactor factor = demandFactor(sc);
+        if (factor != null) {
+            double[] means = new double[sc.getRetailers()];
+            Arrays.fill(means, sc.getDemandMean());
+            if (sc.getCovarianceMatrix() != null) {
+                return CorrelatedDemandSource.withCovariance(seed, means, factor, sc.getSampler());
+            }
+            double[] sigmas = new double[sc.getRetailers()];
+            Arrays.fill(sigmas, sc.getDemandSigma());
+            return CorrelatedDemandSource.withCorrelation(seed, means, sigmas, factor, sc.getSampler());
+        }
+        if (sc.getRho() == 0.0) {
+            return new NormalDemandSource(seed, sc.getRetailers(), sc.getDemandMean(), sc.getDemandSigma(), sc.getSampler());
+        }
+        return CorrelatedDemandSource.equicorrelated(seed, sc.getRetailers(), sc.getDemandMean(), sc.getDemandSigma(),
+                                                     sc.getRho(), sc.getSampler());
+    }
+
+    /**
+     * The scenario's demand correlation as a Cholesky factor, computed once (O(N^3)) and shared by all
+     * replications: the correlation or covariance matrix file, or the equicorrelation matrix when
+     * rho < 0 (rho >= 0 needs no matrix). Null when no factor is needed.
+     */
+    private CholeskyFactor demandFactor(Scenario sc) {
+        if (sc.getCorrelationMatrix() != null && sc.getCovarianceMatrix() != null) {
+            throw new IllegalArgumentException("Set either correlationMatrix or covarianceMatrix, not both.");
+        }
+        int n = sc.getRetailers();
+        CholeskyFactor factor;
+        if (sc.getCorrelationMatrix() != null) {
+            factor = factors.computeIfAbsent("correlation:" + sc.getCorrelationMatrix(),
+                                             k -> readFactor(sc.getCorrelationMatrix(), true));
+        } else if (sc.getCovarianceMatrix() != null) {
+            factor = factors.computeIfAbsent("covariance:" + sc.getCovarianceMatrix(),
+                                             k -> readFactor(sc.getCovarianceMatrix(), false));
+        } else if (sc.getRho() < 0.0) {
+            if (sc.getRho() < -1.0 / Math.max(1, n - 1)) {
+                throw new IllegalArgumentException("rho is outside the valid range for " + n + " retailers.");
+            }
+            return factors.computeIfAbsent("rho:" + n + ":" + sc.getRho(),
+                                           k -> CholeskyFactor.factor(CholeskyFactor.equicorrelation(n, sc.getRho())));
+        } else {
+            return null;
+        }
+        if (factor.size() != n) {
+            throw new IllegalArgumentException("The demand matrix is " + factor.size() + " x " + factor.size()
+                + "; the scenario has " + n + " retailers.");
+        }
+        return factor;
+    }
+
+    private static CholeskyFactor readFactor(String file, boolean correlation) {
+        double[][] a;
+        try {
+            a = CholeskyFactor.read(Paths.get(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < a.length; i++) {
+            if (correlation && Math.abs(a[i][i] - 1.0) > 1e-9) {
+                throw new IllegalArgumentException(file + ": a correlation matrix needs 1 on the diagonal (row " + (i + 1) + ").");
+            }
+            for (int j = 0; j < i; j++) {
+                if (Math.abs(a[i][j] - a[j][i]) > 1e-9 * Math.max(1.0, Math.abs(a[i][j]))) {
+                    throw new IllegalArgumentException(file + ": matrix is not symmetric at row " + (i + 1) + ".");
+                }
+            }
+        }
+        return CholeskyFactor.factor(a);
+    }
+
+    private List<NodeState> newRetailers(Scenario sc) {
+        List<NodeState> retailers = new ArrayList<>();
+        for (int i = 1; i <= sc.getRetailers(); i++) retailers.add(new NodeState(i));
+        return retailers;
+    }
+
+    private void resetNodes(NodeState cw, List<NodeState> retailers) {
+        if (cw != null) {
+            cw.setOnHand(cw.getBaseStock()); cw.clearInTransit(); cw.setBackorder(0);
+        }
+        for (NodeState r : retailers) {
+            r.setOnHand(r.getBaseStock()); r.clearInTransit(); r.setBackorder(0);
+        }
+    }
+
+    public void printResult(ScenarioResult result) {
+        SummaryMetrics sC = result.getCentralized();
+        SummaryMetrics sD = result.getDecentralized();
+        // Each cell: the estimate +/- the 95% half-width, then the range over replications.
+        String row = "%-20s | %-34s | %-34s%n";
+        System.out.printf(row, "METRIC", "CENTRAL (+/- 95% CI) [min, max]", "DECENTRAL (+/- 95% CI) [min, max]");
+        System.out.printf(row, "Total Cost/Day", cell(sC.totalCostPerDay, sC.totalCost, 2), cell(sD.totalCostPerDay, sD.totalCost, 2));
+        System.out.printf(row, "Fill Rate", cell(sC.fillRate, sC.fillRates, 3), cell(sD.fillRate, sD.fillRates, 3));
+        System.out.printf(row, "Hold Cost/Day", cell(sC.avgHoldingCostPerDay, sC.holding, 2), cell(sD.avgHoldingCostPerDay, sD.holding, 2));
+        System.out.printf(row, "Backorder Cost/Day", cell(sC.avgBackorderCostPerDay, sC.backorder, 2), cell(sD.avgBackorderCostPerDay, sD.backorder, 2));
+        System.out.printf(row, "Transport Cost/Day", cell(sC.avgTransportCostPerDay, sC.transport, 2), cell(sD.avgTransportCostPerDay, sD.transport, 2));
+        System.out.printf(row, "Orders/Day", cell(sC.avgOrdersPerDay, sC.orders, 2), cell(sD.avgOrdersPerDay, sD.orders, 2));
+
+        PairedDifference diff = result.getDifference();
+        System.out.printf("%-20s | %.2f +/- %.2f (95%% CI, n=%d; unpaired +/- %.2f)%n",
+            "Diff Cost/Day (C-D)", diff.meanDiff, diff.halfWidth, diff.n, diff.unpairedHalfWidth);
+    }
+
+    private static String cell(double estimate, RunningStat stat, int decimals) {
+        String f = "%." + decimals + "f";
+        return String.format(f + " +/- " + f + " [" + f + ", " + f + "]",
+                             estimate, stat.getHalfWidth(), stat.getMin(), stat.getMax());
+    }
+}
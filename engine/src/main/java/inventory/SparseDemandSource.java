@@ -0,0 +1,31 @@
+package inventory;
+
+/**
+ * SparseDemandSource.java
+ * A demand source that also lists each retailer's non-zero demands, so that EventEngine can
+ * step every retailer from one demand to its next instead of reading every retailer every day.
+ * Retailer i's demands are the entries first(i), first(i) + 1, ... in day order, up to an entry
+ * whose day is 0. Unlike fillDay, entries may be read in any order.
+ */
+public interface SparseDemandSource extends DemandSource {
+
+    /**
+     * Number of non-zero demands over all retailers and days, without building the entries.
+     */
+    long nonZeroCount();
+
+    /**
+     * Index of the retailer's first entry.
+     */
+    int first(int retailer);
+
+    /**
+     * Day (1-based) of the given entry, or 0 past the retailer's last demand.
+     */
+    int dayOf(int entry);
+
+    /**
+     * Demand of the given entry, positive unless its day is 0.
+     */
+    int demandOf(int entry);
+}
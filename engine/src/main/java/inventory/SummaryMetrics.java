@@ -0,0 +1,33 @@
+package inventory;
+
+/**
+ * SummaryMetrics.java
+ * Holds the averaged performance metrics for one supply chain design 
+ * across all R replications.
+ * The plain fields are the point estimates; the RunningStats behind them carry the mean, variance,
+ * min, max and 95% half-width of each metric's per-replication values.
+ */
+public class SummaryMetrics {
+    double totalCostPerDay;
+    double totalCostHalfWidth;   // 95% confidence half-width of totalCostPerDay across replications.
+    double fillRate;             // Pooled over all replications (total served / total demand).
+    double avgHoldingCostPerDay;
+    double avgBackorderCostPerDay;
+    double avgTransportCostPerDay;
+    double avgOrdersPerDay;
+
+    // Per-replication distributions of the metrics above.
+    final RunningStat totalCost = new RunningStat();
+    final RunningStat fillRates = new RunningStat();  // One fill rate per replication; its mean need not equal fillRate.
+    final RunningStat holding = new RunningStat();
+    final RunningStat backorder = new RunningStat();
+    final RunningStat transport = new RunningStat();
+    final RunningStat orders = new RunningStat();
+
+    public RunningStat getTotalCost() { return totalCost; }
+    public RunningStat getFillRates() { return fillRates; }
+    public RunningStat getHolding() { return holding; }
+    public RunningStat getBackorder() { return backorder; }
+    public RunningStat getTransport() { return transport; }
+    public RunningStat getOrders() { return orders; }
+}
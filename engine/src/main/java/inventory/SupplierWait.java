@@ -0,0 +1,96 @@
+package inventory;
+
+/**
+ * SupplierWait.java
+ * How long a node waits for a stocking supplier, for sizing the two echelons together (METRIC, in
+ * Graves' two-moment form). A supplier with base stock S and normal lead-time demand is short with
+ * probability P(D > S) and then owes a backlog (D - S)+. That backlog falls on h of its customers,
+ * b / h each: FIFO leaves the latest orders unfilled, about one customer's daily order apiece, while
+ * the rationing policies spread it over all customers. Under FIFO a customer's share also varies
+ * with its own order. So a customer is owed, with probability 'chance', a normal (mean, variance)
+ * backlog on top of its own lead-time demand, and sizing it on that mixture lets it reach its fill
+ * rate although the supplier is sometimes short.
+ */
+final class SupplierWait {
+
+    static final SupplierWait NONE = new SupplierWait(0.0, 0.0, 0.0); // Supplied by a source.
+
+    final double chance;
+    final double mean;
+    final double variance;
+
+    private SupplierWait(double chance, double mean, double variance) {
+        this.chance = chance;
+        this.mean = mean;
+        this.variance = variance;
+    }
+
+    /**
+     * The wait of each of 'customers' alike customers, ordering mu per day with standard deviation
+     * sigma, at a supplier with the given base stock and normal lead-time demand (meanL, sdL).
+     */
+    static SupplierWait of(double meanL, double sdL, int baseStock, int customers, double mu, double sigma,
+                           AllocationPolicy policy) {
+        if (sdL == 0.0) {
+            double owed = Math.max(0.0, meanL - baseStock);
+            return owed == 0.0 ? NONE : spread(1.0, owed, 0.0, customers, mu, sigma, policy);
+        }
+        double shortChance = 1.0 - ServiceLevel.cdf((baseStock - meanL) / sdL);
+        if (shortChance <= 0.0) {
+            return NONE;
+        }
+        double owed = ServiceLevel.expectedBackorders(meanL, sdL, baseStock);
+        double owedSquare = ServiceLevel.backorderVariance(meanL, sdL, baseStock) + owed * owed;
+        double backlog = owed / shortChance; // Conditional on being short.
+        return spread(shortChance, backlog, Math.max(0.0, owedSquare / shortChance - backlog * backlog),
+                      customers, mu, sigma, policy);
+    }
+
+    private static SupplierWait spread(double shortChance, double backlog, double variance,
+                                       int customers, double mu, double sigma, AllocationPolicy policy) {
+        double h = customers;
+        double own = 0.0;
+        if (policy == AllocationPolicy.FIFO) {
+            h = Math.max(1.0, Math.min(customers, mu > 0.0 ? backlog / mu : customers));
+            own = sigma * sigma; // A waiting customer is owed its own latest order, with that order's spread.
+        }
+        return new SupplierWait(shortChance * h / customers, backlog / h, own + variance / (h * h));
+    }
+
+    /**
+     * Mixture of two waits, e.g. of a node with two suppliers: 'weight' of the orders see this one.
+     */
+    SupplierWait mix(double weight, SupplierWait other) {
+        double c = weight * chance + (1.0 - weight) * other.chance;
+        if (c == 0.0) {
+            return NONE;
+        }
+        double m = (weight * chance * mean + (1.0 - weight) * other.chance * other.mean) / c;
+        double second = (weight * chance * (variance + mean * mean)
+                       + (1.0 - weight) * other.chance * (other.variance + other.mean * other.mean)) / c;
+        return new SupplierWait(c, m, Math.max(0.0, second - m * m));
+    }
+
+    /**
+     * Base stock giving fill rate beta to a customer with normal lead-time demand (meanL, sdL) and this wait;
+     * without a wait it is ServiceLevel.baseStockForFillRate.
+     */
+    int baseStock(double mu, double meanL, double sdL, double beta) {
+        return ServiceLevel.baseStockForFillRate(mu, meanL, sdL, chance, mean, variance, beta);
+    }
+
+    /**
+     * Mean of the customer's lead-time demand plus its wait, for passing the wait on upstream.
+     */
+    double totalMean(double meanL) {
+        return meanL + chance * mean;
+    }
+
+    /**
+     * Standard deviation of the same.
+     */
+    double totalSd(double sdL) {
+        double v = sdL * sdL + chance * (variance + mean * mean) - chance * chance * mean * mean;
+        return Math.sqrt(Math.max(0.0, v));
+    }
+}
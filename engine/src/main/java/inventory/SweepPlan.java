@@ -0,0 +1,78 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * SweepPlan.java
+ * A set of design points over Scenario parameters. Points are produced on demand by index,
+ * so a plan with tens of thousands of points never holds them all in memory.
+ * All points keep the base scenario's id, so they share random streams (common random
+ * numbers across design points) and differences between points are not masked by noise.
+ */
+public interface SweepPlan {
+
+    /**
+     * Number of design points.
+     */
+    int size();
+
+    /**
+     * The scenario for design point 'index' (0 .. size() - 1).
+     */
+    Scenario scenario(int index);
+
+    /**
+     * Reads a plan from properties:
+     *   sweep.type   = factorial | lhs
+     *   factor.KEY   = v1,v2,...   (factorial: the levels of Scenario key KEY)
+     *   factor.KEY   = lo..hi      (lhs: the range of KEY; integer bounds give an integer factor)
+     *   sweep.points = n           (lhs only)
+     *   sweep.seed   = s           (lhs only, optional)
+     * Any other key is treated as a fixed Scenario parameter applied to the base.
+     */
+    static SweepPlan fromProperties(Scenario base, Properties props) {
+        String type = props.getProperty("sweep.type", "factorial").trim();
+        Scenario fixed = base;
+        Map<String, String> factors = new LinkedHashMap<>();
+        for (String key : new TreeSet<>(props.stringPropertyNames())) {
+            String value = props.getProperty(key).trim();
+            if (key.startsWith("factor.")) {
+                factors.put(key.substring("factor.".length()), value);
+            } else if (!key.startsWith("sweep.")) {
+                fixed = fixed.with(key, value);
+            }
+        }
+        if (factors.isEmpty()) {
+            throw new IllegalArgumentException("A sweep needs at least one factor.KEY entry.");
+        }
+
+        if (type.equals("factorial")) {
+            Map<String, List<String>> levels = new LinkedHashMap<>();
+            for (Map.Entry<String, String> f : factors.entrySet()) {
+                List<String> values = new ArrayList<>();
+                for (String v : f.getValue().split(",")) values.add(v.trim());
+                levels.put(f.getKey(), values);
+            }
+            return new FactorialPlan(fixed, levels);
+        }
+        if (type.equals("lhs")) {
+            int points = Integer.parseInt(props.getProperty("sweep.points", "100").trim());
+            long seed = Long.parseLong(props.getProperty("sweep.seed", String.valueOf(Params.MASTER_SEED)).trim());
+            Map<String, String[]> ranges = new LinkedHashMap<>();
+            for (Map.Entry<String, String> f : factors.entrySet()) {
+                String[] bounds = f.getValue().split("\\.\\.");
+                if (bounds.length != 2) {
+                    throw new IllegalArgumentException("LHS factor " + f.getKey() + " needs a range lo..hi.");
+                }
+                ranges.put(f.getKey(), new String[] {bounds[0].trim(), bounds[1].trim()});
+            }
+            return new LatinHypercubePlan(fixed, ranges, points, seed);
+        }
+        throw new IllegalArgumentException("Unknown sweep.type: " + type);
+    }
+}
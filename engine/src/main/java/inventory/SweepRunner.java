@@ -0,0 +1,26 @@
+package inventory;
+
+/**
+ * SweepRunner.java
+ * Runs every design point of a SweepPlan on the executor's fork-join pool.
+ * Design points and their replications are all tasks in the same pool, so idle workers
+ * steal whichever is pending: many small points or a few large ones both keep every core busy.
+ * Each result goes to the sink as soon as its point finishes and is then dropped.
+ */
+public class SweepRunner {
+
+    private final ReplicationExecutor executor;
+    private final Simulation sim;
+
+    /**
+     * Constructor for a runner; sim should be built on the same executor.
+     */
+    public SweepRunner(ReplicationExecutor executor, Simulation sim) {
+        this.executor = executor;
+        this.sim = sim;
+    }
+
+    public void run(SweepPlan plan, ResultSink sink) {
+        executor.forEach(plan.size(), i -> sink.accept(i, sim.runScenario(plan.scenario(i))));
+    }
+}
@@ -0,0 +1,322 @@
+package inventory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Topology.java
+ * A supply network declared as a directed acyclic graph of nodes and lanes, run by NetworkEngine.
+ * Nodes are sources (plants with unlimited supply), DCs (stocking points that ship to other nodes;
+ * a DC with base stock 0 acts as a cross-dock) and stores (which see customer demand). A lane
+ * carries units from one node to another with a lead time and a per-unit transport cost; a node
+ * with several inbound lanes splits its orders between them by the lanes' shares.
+ * Stores are numbered in declaration order, which is the column order of the demand source.
+ *
+ * Text form, one declaration per line ('#' starts a comment):
+ *   node NAME source|dc|store [BASE_STOCK]
+ *   lane FROM TO LEAD_DAYS COST_PER_UNIT [SHARE]
+ * A node declared without a base stock is sized by the fill-rate formula (see baseStocks).
+ * Once handed to the engines a Topology is only read, so it can be shared between threads.
+ */
+public final class Topology {
+
+    public enum Kind { SOURCE, DC, STORE }
+
+    public static final int UNSET = -1; // Base stock to be sized from the scenario.
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Kind> kinds = new ArrayList<>();
+    private final List<Integer> declaredBaseStocks = new ArrayList<>();
+    private final Map<String, Integer> index = new HashMap<>();
+    private final List<Lane> lanes = new ArrayList<>();
+    private int stores = 0;
+
+    static final class Lane {
+        final int from;
+        final int to;
+        final int lead;
+        final double cost;
+        final double share;
+
+        Lane(int from, int to, int lead, double cost, double share) {
+            this.from = from;
+            this.to = to;
+            this.lead = lead;
+            this.cost = cost;
+            this.share = share;
+        }
+    }
+
+    /**
+     * Adds a node and returns its index; baseStock may be UNSET (sources ignore it).
+     */
+    public int addNode(String name, Kind kind, int baseStock) {
+        if (index.containsKey(name)) {
+            throw new IllegalArgumentException("Node " + name + " is declared twice.");
+        }
+        if (baseStock < 0 && baseStock != UNSET) {
+            throw new IllegalArgumentException("Base stock of " + name + " must not be negative.");
+        }
+        int id = names.size();
+        names.add(name);
+        kinds.add(kind);
+        declaredBaseStocks.add(baseStock);
+        index.put(name, id);
+        if (kind == Kind.STORE) stores++;
+        return id;
+    }
+
+    /**
+     * Adds a lane from node 'from' to node 'to'; share weighs it against the other lanes into 'to'.
+     */
+    public void addLane(int from, int to, int lead, double costPerUnit, double share) {
+        checkNode(from);
+        checkNode(to);
+        if (lead < 1) {
+            throw new IllegalArgumentException("Lead time must be at least one day.");
+        }
+        if (!(costPerUnit >= 0.0)) {
+            throw new IllegalArgumentException("Lane cost must not be negative.");
+        }
+        if (!(share > 0.0) || Double.isInfinite(share)) {
+            throw new IllegalArgumentException("Lane share must be positive.");
+        }
+        if (kinds.get(to) == Kind.SOURCE) {
+            throw new IllegalArgumentException("Source " + names.get(to) + " cannot be supplied by a lane.");
+        }
+        if (kinds.get(from) == Kind.STORE) {
+            throw new IllegalArgumentException("Store " + names.get(from) + " cannot ship to other nodes.");
+        }
+        lanes.add(new Lane(from, to, lead, costPerUnit, share));
+    }
+
+    /**
+     * Reads the text form described above.
+     */
+    public static Topology parse(Path file) throws IOException {
+        Topology t = new Topology();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String text;
+            int line = 0;
+            while ((text = in.readLine()) != null) {
+                line++;
+                int hash = text.indexOf('#');
+                String[] f = (hash >= 0 ? text.substring(0, hash) : text).trim().split("\\s+");
+                if (f[0].isEmpty()) continue;
+                try {
+                    if (f[0].equals("node") && (f.length == 3 || f.length == 4)) {
+                        Kind kind = Kind.valueOf(f[2].toUpperCase());
+                        t.addNode(f[1], kind, f.length == 4 ? Integer.parseInt(f[3]) : UNSET);
+                    } else if (f[0].equals("lane") && (f.length == 5 || f.length == 6)) {
+                        t.addLane(t.nodeIndex(f[1]), t.nodeIndex(f[2]), Integer.parseInt(f[3]),
+                                  Double.parseDouble(f[4]), f.length == 6 ? Double.parseDouble(f[5]) : 1.0);
+                    } else {
+                        throw new IllegalArgumentException("Expected 'node NAME KIND [S]' or 'lane FROM TO LEAD COST [SHARE]'.");
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file + " line " + line + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        t.processingOrder(); // Rejects cycles and unsupplied nodes now rather than at the first run.
+        return t;
+    }
+
+    /**
+     * The standard designs as a network: MFG -> CW -> retailers, or MFG -> retailers when cw is null,
+     * with the base stocks of the given nodes. Nodes are numbered MFG, CW (if any), then the retailers.
+     */
+    public static Topology of(Scenario sc, List<NodeState> retailers, NodeState cw) {
+        Topology t = new Topology();
+        int mfg = t.addNode("MFG", Kind.SOURCE, UNSET);
+        int supplier = mfg;
+        if (cw != null) {
+            supplier = t.addNode("CW", Kind.DC, cw.getBaseStock());
+            t.addLane(mfg, supplier, sc.getLeadMfgToCw(), sc.getTransportInbound(), 1.0);
+        }
+        int lead = cw != null ? sc.getLeadCwToRetailer() : sc.getLeadMfgToRetailer();
+        double cost = cw != null ? sc.getTransportOutbound() : sc.getTransportDirect();
+        for (NodeState r : retailers) {
+            int store = t.addNode(r.getName(), Kind.STORE, r.getBaseStock());
+            t.addLane(supplier, store, lead, cost, 1.0);
+        }
+        return t;
+    }
+
+    /**
+     * Base stocks of the given nodes, indexed as the nodes of Topology.of(sc, retailers, cw).
+     */
+    static int[] baseStocksOf(List<NodeState> retailers, NodeState cw) {
+        int first = cw != null ? 2 : 1;
+        int[] s = new int[first + retailers.size()];
+        if (cw != null) s[1] = cw.getBaseStock();
+        for (int i = 0; i < retailers.size(); i++) {
+            s[first + i] = retailers.get(i).getBaseStock();
+        }
+        return s;
+    }
+
+    public int getNodeCount() { return names.size(); }
+    public int getLaneCount() { return lanes.size(); }
+    public int getStoreCount() { return stores; }
+    public String getName(int node) { return names.get(node); }
+    public Kind getKind(int node) { return kinds.get(node); }
+
+    Lane getLane(int lane) {
+        return lanes.get(lane);
+    }
+
+    public int getMaxLead() {
+        int max = 1;
+        for (Lane l : lanes) max = Math.max(max, l.lead);
+        return max;
+    }
+
+    /**
+     * Base stock of every node: the declared level, or else the fill-rate formula on the node's
+     * lead-time demand (ServiceLevel.baseStockForFillRate). A node's demand is the share-weighted
+     * sum of its stores' demand, with the scenario's mean, sigma and equicorrelation rho; where paths
+     * to one store split and rejoin, the branches are treated as independent. The lead time is the
+     * node's longest inbound lane. Nodes are sized from the sources down, so each also covers its wait
+     * for DCs that are short (SupplierWait, mixed over its inbound lanes by share). Sources get 0.
+     */
+    public int[] baseStocks(Scenario sc) {
+        int v = names.size();
+        int[] order = processingOrder();
+        double[] inShares = new double[v];
+        for (Lane l : lanes) inShares[l.to] += l.share;
+        List<List<Lane>> out = outbound();
+
+        double[] weight = new double[v];   // Sum of the node's store weights.
+        double[] weight2 = new double[v];  // Sum of their squares.
+        int[] lead = new int[v];
+        for (Lane l : lanes) lead[l.to] = Math.max(lead[l.to], l.lead);
+        double mu = sc.getDemandMean();
+        double sigma = sc.getDemandSigma();
+        double rho = sc.getRho();
+
+        for (int node : order) {
+            if (kinds.get(node) == Kind.STORE) {
+                weight[node] = 1.0;
+                weight2[node] = 1.0;
+            } else {
+                for (Lane l : out.get(node)) {
+                    double w = l.share / inShares[l.to];
+                    weight[node] += w * weight[l.to];
+                    weight2[node] += w * w * weight2[l.to];
+                }
+            }
+        }
+
+        // Suppliers first: reverse processing order puts the sources first and every node after its suppliers.
+        int[] s = new int[v];
+        double[] totalMean = new double[v];  // Lead-time demand plus wait, as the node's own customers see it.
+        double[] totalSd = new double[v];
+        List<List<Lane>> in = new ArrayList<>(v);
+        for (int node = 0; node < v; node++) in.add(new ArrayList<>());
+        for (Lane l : lanes) in.get(l.to).add(l);
+        for (int k = v - 1; k >= 0; k--) {
+            int node = order[k];
+            if (kinds.get(node) == Kind.SOURCE) {
+                s[node] = 0;
+                continue;
+            }
+            double meanL = weight[node] * mu * lead[node];
+            double variance = sigma * sigma * ((1.0 - rho) * weight2[node] + rho * weight[node] * weight[node]);
+            double sd = Math.sqrt(Math.max(0.0, variance));
+            double sdL = sd * Math.sqrt(lead[node]);
+            SupplierWait wait = SupplierWait.NONE;
+            double seen = 0.0;                                   // Share of the inbound lanes mixed in so far.
+            for (Lane l : in.get(node)) {
+                double w = l.share / inShares[node];
+                SupplierWait from = kinds.get(l.from) == Kind.SOURCE ? SupplierWait.NONE
+                    : SupplierWait.of(totalMean[l.from], totalSd[l.from], s[l.from], out.get(l.from).size(),
+                                      w * weight[node] * mu, w * sd, sc.getAllocation());
+                seen += w;
+                wait = from.mix(w / seen, wait);
+            }
+            if (declaredBaseStocks.get(node) != UNSET) {
+                s[node] = declaredBaseStocks.get(node);
+            } else {
+                s[node] = wait.baseStock(weight[node] * mu, meanL, sdL, sc.getTargetFillRate());
+            }
+            totalMean[node] = wait.totalMean(meanL);
+            totalSd[node] = wait.totalSd(sdL);
+        }
+        return s;
+    }
+
+    /**
+     * All nodes, each after every node it ships to, with the sources last. Throws if the graph has a
+     * cycle, a DC or store without a supplier, or a DC that ships nowhere.
+     */
+    int[] processingOrder() {
+        int v = names.size();
+        int[] outDegree = new int[v];
+        int[] inDegree = new int[v];
+        for (Lane l : lanes) {
+            outDegree[l.from]++;
+            inDegree[l.to]++;
+        }
+        for (int node = 0; node < v; node++) {
+            if (kinds.get(node) != Kind.SOURCE && inDegree[node] == 0) {
+                throw new IllegalArgumentException("Node " + names.get(node) + " has no inbound lane.");
+            }
+            if (kinds.get(node) == Kind.DC && outDegree[node] == 0) {
+                throw new IllegalArgumentException("DC " + names.get(node) + " has no outbound lane.");
+            }
+        }
+        List<List<Lane>> in = new ArrayList<>(v);
+        for (int node = 0; node < v; node++) in.add(new ArrayList<>());
+        for (Lane l : lanes) in.get(l.to).add(l);
+
+        // Kahn's algorithm on the reversed graph: a node is ready once everything it ships to is placed.
+        int[] order = new int[v];
+        int placed = 0;
+        for (int node = 0; node < v; node++) {
+            if (outDegree[node] == 0) order[placed++] = node;
+        }
+        for (int head = 0; head < placed; head++) {
+            for (Lane l : in.get(order[head])) {
+                if (--outDegree[l.from] == 0) order[placed++] = l.from;
+            }
+        }
+        if (placed != v) {
+            throw new IllegalArgumentException("The network has a cycle.");
+        }
+        // Sources have no suppliers, so moving them to the end keeps the order valid.
+        int[] sorted = new int[v];
+        int k = 0;
+        for (int node : order) if (kinds.get(node) != Kind.SOURCE) sorted[k++] = node;
+        for (int node : order) if (kinds.get(node) == Kind.SOURCE) sorted[k++] = node;
+        return sorted;
+    }
+
+    private List<List<Lane>> outbound() {
+        List<List<Lane>> out = new ArrayList<>(names.size());
+        for (int node = 0; node < names.size(); node++) out.add(new ArrayList<>());
+        for (Lane l : lanes) out.get(l.from).add(l);
+        return out;
+    }
+
+    private int nodeIndex(String name) {
+        Integer id = index.get(name);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown node " + name + ".");
+        }
+        return id;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= names.size()) {
+            throw new IllegalArgumentException("Node index out of range: " + node);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package inventory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * TraceDemandSource.java
+ * Replays historical daily sales per retailer from a file, streamed through one fixed NIO buffer,
+ * so traces of any length (years of days, thousands of stores) never have to fit in the heap.
+ *
+ * Two formats are read, chosen by the file name:
+ *  - "*.bin": little-endian 32-bit ints, one row of N retailers per day, no header.
+ *  - anything else: CSV with one line per day and one column per retailer. An optional header
+ *    line and an optional leading label column (e.g. the date) are skipped; decimals are rounded
+ *    and negative values (returns) count as zero demand. Whitespace and quotes around a value
+ *    are ignored, but not inside it, and values beyond the int range are rejected.
+ * A source starts at a given day offset into the trace and wraps to the first day at the end,
+ * so replications can replay different windows of one history. The trace is scanned once into an
+ * Index of where each day's row starts, so opening a window is a seek rather than a re-parse.
+ */
+public class TraceDemandSource implements DemandSource, AutoCloseable {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long NOT_A_NUMBER = Long.MIN_VALUE; // Marks a CSV field that is not a number.
+
+    private final Path file;
+    private final FileChannel ch;
+    private final ByteBuffer buf;
+    private final boolean binary;
+    private final int n;
+    private final long[] fields;      // CSV: values of the line being parsed (label column included).
+    private long line = 0;            // CSV: lines read since the last rewind, for error messages.
+    private long rowsSinceRewind = 0;
+
+    private TraceDemandSource(Path file, int nRetailers) throws IOException {
+        this.file = file;
+        this.ch = FileChannel.open(file, StandardOpenOption.READ);
+        this.buf = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.binary = file.getFileName().toString().endsWith(".bin");
+        this.n = nRetailers;
+        this.fields = new long[nRetailers + 1];
+        buf.limit(0);
+    }
+
+    /**
+     * Opens the trace for nRetailers retailers, positioned at day startDay (0-based, wrapping).
+     * Scans the whole file first; callers opening many windows should build the Index once.
+     */
+    public static TraceDemandSource open(Path file, int nRetailers, long startDay) throws IOException {
+        return open(index(file, nRetailers), startDay);
+    }
+
+    /**
+     * Opens the indexed trace positioned at day startDay (0-based, wrapping).
+     */
+    public static TraceDemandSource open(Index index, long startDay) throws IOException {
+        TraceDemandSource src = new TraceDemandSource(index.file, index.retailers);
+        try {
+            src.seek(index, startDay % index.rows);
+        } catch (IOException | RuntimeException e) {
+            src.close();
+            throw e;
+        }
+        return src;
+    }
+
+    /**
+     * Validates the trace for nRetailers retailers and records where each of its rows starts.
+     */
+    public static Index index(Path file, int nRetailers) throws IOException {
+        try (TraceDemandSource src = new TraceDemandSource(file, nRetailers)) {
+            return src.buildIndex();
+        }
+    }
+
+    /**
+     * Start of every row of one trace file: a byte offset and, for CSV, the lines read before it.
+     * Immutable, so one Index serves any number of concurrently open sources.
+     */
+    public static final class Index {
+        private final Path file;
+        private final int retailers;
+        private final long rows;
+        private final long[] offsets;     // CSV only; binary rows sit at row * rowBytes.
+        private final long[] lines;
+
+        private Index(Path file, int retailers, long rows, long[] offsets, long[] lines) {
+            this.file = file;
+            this.retailers = retailers;
+            this.rows = rows;
+            this.offsets = offsets;
+            this.lines = lines;
+        }
+
+        public Path getFile() { return file; }
+        public int getRetailers() { return retailers; }
+        /** Days of demand in the trace. */
+        public long getRows() { return rows; }
+    }
+
+    @Override
+    public void fillDay(int day, int[] out) {
+        try {
+            readRow(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        ch.close();
+    }
+
+    private Index buildIndex() throws IOException {
+        if (binary) {
+            long rowBytes = (long) n * Integer.BYTES;
+            if (ch.size() == 0 || ch.size() % rowBytes != 0) {
+                throw new IOException(file + " is not a whole number of " + n + "-retailer rows.");
+            }
+            return new Index(file, n, ch.size() / rowBytes, null, null);
+        }
+        int[] scratch = new int[n];
+        long[] offsets = new long[1024];
+        long[] lines = new long[1024];
+        int rows = 0;
+        while (true) {
+            long offset = ch.position() - buf.remaining();
+            long linesBefore = line;
+            if (!readCsvRow(scratch)) break;
+            if (rows == offsets.length) {
+                if (rows == Integer.MAX_VALUE - 8) {
+                    throw new IOException(file + " has more rows than can be indexed.");
+                }
+                int grown = (int) Math.min(Integer.MAX_VALUE - 8, 2L * rows);
+                offsets = Arrays.copyOf(offsets, grown);
+                lines = Arrays.copyOf(lines, grown);
+            }
+            offsets[rows] = offset;
+            lines[rows] = linesBefore;
+            rows++;
+        }
+        if (rows == 0) {
+            throw new IOException(file + " holds no demand rows.");
+        }
+        return new Index(file, n, rows, Arrays.copyOf(offsets, rows), Arrays.copyOf(lines, rows));
+    }
+
+    /**
+     * Positions the source at the start of row 'row' (already reduced modulo the row count).
+     */
+    private void seek(Index index, long row) throws IOException {
+        if (binary) {
+            ch.position(row * n * Integer.BYTES);
+        } else {
+            ch.position(index.offsets[(int) row]);
+            line = index.lines[(int) row];
+        }
+        buf.limit(0);
+        rowsSinceRewind = row;
+    }
+
+    private void readRow(int[] out) throws IOException {
+        boolean ok = binary ? readBinaryRow(out) : readCsvRow(out);
+        if (!ok) {
+            if (rowsSinceRewind == 0) {
+                throw new IOException(file + " holds no demand rows.");
+            }
+            rewind();
+            readRow(out);
+            return;
+        }
+        rowsSinceRewind++;
+    }
+
+    private void rewind() throws IOException {
+        ch.position(0);
+        buf.limit(0);
+        line = 0;
+        rowsSinceRewind = 0;
+    }
+
+    /**
+     * Refills the buffer when it is empty; false at the end of the file.
+     */
+    private boolean fill() throws IOException {
+        if (buf.hasRemaining()) return true;
+        buf.clear();
+        int read = ch.read(buf);
+        buf.flip();
+        return read > 0;
+    }
+
+    private boolean readBinaryRow(int[] out) throws IOException {
+        for (int i = 0; i < n; i++) {
+            if (buf.remaining() < Integer.BYTES) {
+                buf.compact();
+                while (buf.position() < Integer.BYTES && ch.read(buf) > 0) {
+                    // Top up until at least one int is buffered.
+                }
+                buf.flip();
+                if (buf.remaining() < Integer.BYTES) {
+                    if (i == 0 && !buf.hasRemaining()) return false;
+                    throw new IOException(file + " ends in the middle of a row.");
+                }
+            }
+            out[i] = Math.max(0, buf.getInt());
+        }
+        return true;
+    }
+
+    /**
+     * Parses the next data line into out; false at the end of the file.
+     */
+    private boolean readCsvRow(int[] out) throws IOException {
+        while (true) {
+            int count = 0;              // Fields completed on this line.
+            boolean any = false;        // Line has any content.
+            boolean eof = false;
+            // State of the field being parsed.
+            long value = 0;
+            boolean negative = false;
+            boolean digits = false;
+            int fractionDigits = -1;    // -1 before the decimal point.
+            boolean roundUp = false;
+            boolean bad = false;
+            boolean started = false;    // Field has content other than padding.
+            boolean padded = false;     // Padding (whitespace or quotes) followed that content.
+            while (true) {
+                if (!fill()) {
+                    eof = true;
+                    break;
+                }
+                byte b = buf.get();
+                if (b == '\n') break;
+                if (b == '\r' || b == ' ' || b == '\t' || b == '"') {
+                    padded = started;
+                    continue;
+                }
+                any = true;
+                if (b == ',') {
+                    count = endField(count, value, negative, roundUp, digits && !bad);
+                    value = 0; negative = false; digits = false; fractionDigits = -1; roundUp = false; bad = false;
+                    started = false; padded = false;
+                    continue;
+                }
+                bad |= padded;                  // Padding inside a field, e.g. "1 2".
+                started = true;
+                if (b >= '0' && b <= '9') {
+                    if (fractionDigits < 0) {
+                        if (value <= Integer.MAX_VALUE) {
+                            value = value * 10 + (b - '0');     // Stops growing once out of int range.
+                        }
+                    } else if (fractionDigits++ == 0) {
+                        roundUp = b >= '5';     // Round half up on the first decimal.
+                    }
+                    digits = true;
+                } else if (b == '-' && !digits && !negative) {
+                    negative = true;
+                } else if (b == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else {
+                    bad = true;
+                }
+            }
+            if (!any) {
+                if (eof) return false;
+                continue;                       // Blank line.
+            }
+            line++;
+            count = endField(count, value, negative, roundUp, digits && !bad);
+
+            boolean labelled = count == n + 1;
+            if (count != n && !labelled) {
+                throw new IOException(String.format("%s line %d: expected %d retailer columns, found %d.",
+                    file, line, n, count));
+            }
+            int first = labelled ? 1 : 0;
+            boolean numeric = true;
+            for (int i = first; i < count; i++) {
+                numeric &= fields[i] != NOT_A_NUMBER;
+            }
+            if (!numeric) {
+                if (line == 1) continue;        // Header.
+                throw new IOException(file + " line " + line + ": non-numeric demand.");
+            }
+            for (int i = 0; i < n; i++) {
+                long v = fields[first + i];
+                if (v > Integer.MAX_VALUE) {
+                    throw new IOException(String.format("%s line %d: demand in column %d exceeds %d.",
+                        file, line, first + i + 1, Integer.MAX_VALUE));
+                }
+                out[i] = (int) Math.max(0, v);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Stores a completed CSV field (if the line still has room for it) and returns the new field count.
+     */
+    private int endField(int count, long value, boolean negative, boolean roundUp, boolean numeric) {
+        if (count < fields.length) {
+            long v = value + (roundUp ? 1 : 0);
+            fields[count] = numeric ? (negative ? -v : v) : NOT_A_NUMBER;
+        }
+        return count + 1;
+    }
+}
@@ -0,0 +1,50 @@
+package inventory;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorDemandTransform.java
+ * DemandTransform on the incubating Vector API; loaded reflectively by DemandTransform.best().
+ * Each block is scaled and shifted (multiply then add, no fused multiply-add, to match the scalar
+ * rounding) and clamped at 0. Adding 2^52 then rounds to the nearest integer and leaves it in the
+ * low 32 bits of each double, so the ints are picked out by a long-to-int narrowing of the raw
+ * bits instead of a double-to-int conversion, which JDK 17 does not vectorize. Ties that went
+ * down to even are bumped up to match Math.round.
+ */
+final class VectorDemandTransform implements DemandTransform {
+
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+    // Int lanes matching the double lanes one to one (half the bit size).
+    private static final VectorSpecies<Integer> I =
+        VectorSpecies.of(int.class, VectorShape.forBitSize(D.vectorBitSize() / 2));
+    private static final double TWO_52 = 0x1.0p52;
+
+    VectorDemandTransform() {
+        // Below 256-bit doubles the narrowed ints would need 64-bit vectors, which are not
+        // intrinsified and run far slower than the scalar loop; refuse so the loader falls back.
+        if (D.vectorBitSize() < 256) {
+            throw new IllegalStateException("Vectors too narrow: " + D);
+        }
+    }
+
+    @Override
+    public void toDemand(double[] z, double mu, double sigma, int[] out, int from, int to) {
+        int i = from;
+        int upper = from + D.loopBound(to - from);
+        for (; i < upper; i += D.length()) {
+            DoubleVector x = DoubleVector.fromArray(D, z, i).mul(sigma).add(mu).max(0.0);
+            DoubleVector biased = x.add(TWO_52);                               // Round half to even.
+            VectorMask<Double> tieDown = x.sub(biased.sub(TWO_52)).compare(VectorOperators.EQ, 0.5);
+            biased = biased.add(1.0, tieDown);                                 // Ties go up, as in Math.round.
+            ((IntVector) biased.reinterpretAsLongs().castShape(I, 0)).intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            out[i] = NormalDemandSource.toDemand(z[i] * sigma + mu);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package inventory;
+
+import java.util.SplittableRandom;
+
+/**
+ * ZigguratSampler.java
+ * Standard normal variates by the Ziggurat method (Marsaglia and Tsang, in Doornik's ZIGNOR form)
+ * with 128 layers. About 99% of draws take one nextLong, one table lookup and one multiply;
+ * only the rest evaluate exp or log. Holds no state besides the shared tables, so any number of
+ * streams can use it concurrently without allocation.
+ */
+final class ZigguratSampler {
+
+    private static final int LAYERS = 128;
+    private static final double R = 3.442619855899;        // Start of the tail.
+    private static final double V = 9.91256303526217e-3;   // Area of each layer.
+
+    private static final double[] X = new double[LAYERS + 1];   // Layer edges, X[0] > R > ... > X[128] = 0.
+    private static final double[] RATIO = new double[LAYERS];   // X[i + 1] / X[i]: inner-rectangle test.
+
+    static {
+        double f = Math.exp(-0.5 * R * R);
+        X[0] = V / f;
+        X[1] = R;
+        X[LAYERS] = 0.0;
+        for (int i = 2; i < LAYERS; i++) {
+            X[i] = Math.sqrt(-2.0 * Math.log(V / X[i - 1] + f));
+            f = Math.exp(-0.5 * X[i] * X[i]);
+        }
+        for (int i = 0; i < LAYERS; i++) {
+            RATIO[i] = X[i + 1] / X[i];
+        }
+    }
+
+    private ZigguratSampler() {
+    }
+
+    static double next(SplittableRandom rng) {
+        while (true) {
+            long bits = rng.nextLong();
+            int i = (int) bits & (LAYERS - 1);          // Low 7 bits pick the layer,
+            double u = (bits >> 11) * 0x1.0p-52;        // the top 53 (signed) give u in [-1, 1).
+            if (Math.abs(u) < RATIO[i]) {
+                return u * X[i];                        // Inside the layer's inner rectangle.
+            }
+            if (i == 0) {
+                return tail(rng, u < 0);
+            }
+            double x = u * X[i];
+            double f0 = Math.exp(-0.5 * (X[i] * X[i] - x * x));
+            double f1 = Math.exp(-0.5 * (X[i + 1] * X[i + 1] - x * x));
+            if (f1 + rng.nextDouble() * (f0 - f1) < 1.0) {
+                return x;                               // Under the density in the wedge.
+            }
+        }
+    }
+
+    /**
+     * Marsaglia's exact sampler for |Z| > R.
+     */
+    private static double tail(SplittableRandom rng, boolean negative) {
+        double x;
+        double y;
+        do {
+            x = Math.log(1.0 - rng.nextDouble()) / R;
+            y = Math.log(1.0 - rng.nextDouble());
+        } while (-2.0 * y < x * x);
+        return negative ? x - R : R - x;
+    }
+}
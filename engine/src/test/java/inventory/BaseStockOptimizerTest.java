@@ -0,0 +1,48 @@
+package inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * BaseStockOptimizerTest.java
+ * The search moves every retailer by one offset from its own formula level, so retailers sized on
+ * different variances (a covariance matrix) keep the formula's differences between them, and the
+ * chosen levels reach the target fill rate.
+ */
+class BaseStockOptimizerTest {
+
+    private static final ReplicationExecutor EXECUTOR = new ReplicationExecutor(4);
+    private static final Simulation SIM = new Simulation(EXECUTOR, new RandomStreams(Params.MASTER_SEED));
+
+    @Test
+    void heterogeneousRetailersKeepTheirOwnLevels(@TempDir Path dir) throws IOException {
+        Path cov = dir.resolve("cov.txt");
+        Files.write(cov, List.of(
+            "400 100 100 100", "100 900 200 200", "100 200 1600 300", "100 200 300 2500"));
+        Scenario sc = Scenario.defaults().withRetailers(4).withDays(120).withReplications(10)
+                              .withCovarianceMatrix(cov.toString());
+        BaseStockOptimizer optimizer = new BaseStockOptimizer(EXECUTOR, SIM);
+        for (boolean centralized : new boolean[] {true, false}) {
+            List<NodeState> retailers = new ArrayList<>();
+            for (int i = 1; i <= 4; i++) retailers.add(new NodeState(i));
+            SIM.computeBaseStocksAdvanced(retailers, centralized ? new NodeState(NodeState.CW) : null, centralized, sc);
+
+            BaseStockOptimizer.Solution best = optimizer.optimize(sc, centralized);
+            for (int i = 1; i <= 4; i++) {
+                assertEquals(retailers.get(i - 1).getBaseStock() + best.getRetailerOffset(), best.getRetailerBaseStock(i),
+                             "centralized=" + centralized + " retailer " + i);
+            }
+            assertTrue(best.getRetailerBaseStock(4) > best.getRetailerBaseStock(1), "centralized=" + centralized);
+            assertTrue(best.getMetrics().fillRate >= sc.getTargetFillRate(), "centralized=" + centralized);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * CsvResultSinkTest.java
+ * Scenario names are quoted per RFC 4180 so that every row keeps the header's column count, and
+ * closing the sink leaves a writer it does not own (such as one wrapping System.out) open.
+ */
+class CsvResultSinkTest {
+
+    private static final Simulation SIM = new Simulation(new ReplicationExecutor(2), new RandomStreams(Params.MASTER_SEED));
+
+    @Test
+    void quotesOnlyFieldsThatNeedIt() {
+        assertEquals("plain name", CsvResultSink.quote("plain name"));
+        assertEquals("\"a,b\"", CsvResultSink.quote("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", CsvResultSink.quote("say \"hi\""));
+        assertEquals("\"two\nlines\"", CsvResultSink.quote("two\nlines"));
+    }
+
+    @Test
+    void rowKeepsTheHeaderColumnCount() throws IOException {
+        ScenarioResult result = SIM.runScenario(Scenario.defaults().withDays(30).withReplications(2)
+                                                        .withName("rho=0.5, \"tight\""));
+        StringWriter w = new StringWriter();
+        try (CsvResultSink sink = new CsvResultSink(w)) {
+            sink.accept(0, result);
+        }
+        String[] lines = w.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith("0,\"rho=0.5, \"\"tight\"\"\","), lines[1]);
+        // The quoted name holds one comma that is not a separator.
+        assertEquals(count(lines[0], ',') + 1, count(lines[1], ','));
+    }
+
+    @Test
+    void closeLeavesABorrowedWriterOpen() throws IOException {
+        TrackingWriter borrowed = new TrackingWriter();
+        CsvResultSink sink = new CsvResultSink(borrowed, false);
+        borrowed.flushed = false;
+        sink.close();
+        assertFalse(borrowed.closed);
+        assertTrue(borrowed.flushed);
+
+        TrackingWriter owned = new TrackingWriter();
+        new CsvResultSink(owned).close();
+        assertTrue(owned.closed);
+    }
+
+    private static int count(String s, char ch) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == ch) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static final class TrackingWriter extends StringWriter {
+        boolean flushed;
+        boolean closed;
+
+        @Override
+        public void flush() {
+            flushed = true;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
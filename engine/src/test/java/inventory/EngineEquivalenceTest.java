@@ -0,0 +1,118 @@
+package inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * EngineEquivalenceTest.java
+ * The engines and the run options that only change how a replication is computed must give
+ * exactly the same Metrics: OBJECT, ARRAY, EVENT and NETWORK engines; fused and phased daily
+ * steps; one or several ARRAY shards; daily and lazy cost accrual. Metrics are fixed point, so
+ * every figure is compared for equality, on scenarios where the CW runs short and rations.
+ */
+class EngineEquivalenceTest {
+
+    // Several threads, so that sharded runs really split the retailers between workers.
+    private static final Simulation SIM = new Simulation(new ReplicationExecutor(4), new RandomStreams(Params.MASTER_SEED));
+
+    /**
+     * Short runs over every allocation policy, a few retailer counts and a tight and a loose service target.
+     */
+    private static List<Scenario> scenarios() {
+        List<Scenario> out = new ArrayList<>();
+        for (AllocationPolicy policy : AllocationPolicy.values()) {
+            for (int n : new int[] {1, 3, 25}) {
+                for (double beta : new double[] {0.95, 0.6}) {
+                    out.add(Scenario.defaults().withDays(120).withRetailers(n).withAllocation(policy)
+                                    .withTargetFillRate(beta).withDemandSigma(60.0));
+                }
+            }
+        }
+        return out;
+    }
+
+    @Test
+    void allEnginesAgree() {
+        for (Scenario sc : scenarios()) {
+            Metrics[] ref = SIM.runReplicationPair(sc.withEngine(Engine.OBJECT), 1);
+            for (Engine engine : Engine.values()) {
+                assertSamePair(ref, SIM.runReplicationPair(sc.withEngine(engine), 1), sc + " engine=" + engine);
+            }
+        }
+    }
+
+    @Test
+    void fusedAndPhasedStepsAgree() {
+        for (Scenario sc : scenarios()) {
+            for (Engine engine : new Engine[] {Engine.OBJECT, Engine.ARRAY}) {
+                Scenario s = sc.withEngine(engine);
+                assertSamePair(SIM.runReplicationPair(s.withFusedStep(false), 2),
+                               SIM.runReplicationPair(s.withFusedStep(true), 2), s + " fusedStep");
+            }
+        }
+    }
+
+    @Test
+    void shardCountDoesNotChangeResults() {
+        for (Scenario sc : scenarios()) {
+            Scenario s = sc.withEngine(Engine.ARRAY);
+            Metrics[] ref = SIM.runReplicationPair(s.withShards(1), 3);
+            for (int shards : new int[] {2, 3, 7}) {
+                assertSamePair(ref, SIM.runReplicationPair(s.withShards(shards), 3), s + " shards=" + shards);
+            }
+        }
+    }
+
+    @Test
+    void lazyCostAccrualAgreesWithDaily() {
+        for (Scenario sc : scenarios()) {
+            for (boolean fused : new boolean[] {true, false}) {
+                Scenario s = sc.withEngine(Engine.OBJECT).withFusedStep(fused);
+                assertSamePair(SIM.runReplicationPair(s.withCostAccrual(CostAccrual.DAILY), 4),
+                               SIM.runReplicationPair(s.withCostAccrual(CostAccrual.LAZY), 4), s + " costAccrual");
+            }
+        }
+    }
+
+    @Test
+    void allEnginesAgreeOnSparseDemand() {
+        // Most retailers see no demand on most days, the case the event engine is for. Under 1%
+        // non-zero demand (rare) the event engine steps each retailer through the DemandMatrix from
+        // demand to demand; otherwise, and for live sources (no common random numbers), it scans
+        // whole days.
+        Scenario sparse = Scenario.defaults().withDays(200).withRetailers(40).withDemandMean(0.3).withDemandSigma(0.8);
+        Scenario rare = sparse.withDemandMean(0.01).withDemandSigma(0.2);
+        for (Scenario sc : new Scenario[] {sparse, rare, sparse.withCommonRandomNumbers(false)}) {
+            Metrics[] ref = SIM.runReplicationPair(sc.withEngine(Engine.OBJECT), 1);
+            for (Engine engine : Engine.values()) {
+                assertSamePair(ref, SIM.runReplicationPair(sc.withEngine(engine), 1), sc + " engine=" + engine);
+            }
+        }
+    }
+
+    @Test
+    void lazyCostAccrualAgreesOnSparseDemand() {
+        // Most retailers see no demand on most days, the case lazy accrual is for.
+        Scenario sc = Scenario.defaults().withDays(200).withRetailers(40).withDemandMean(0.3).withDemandSigma(0.8);
+        assertSamePair(SIM.runReplicationPair(sc.withCostAccrual(CostAccrual.DAILY), 1),
+                       SIM.runReplicationPair(sc.withCostAccrual(CostAccrual.LAZY), 1), "sparse costAccrual");
+    }
+
+    static void assertSamePair(Metrics[] expected, Metrics[] actual, String what) {
+        assertSame(expected[0], actual[0], what + " (centralized)");
+        assertSame(expected[1], actual[1], what + " (decentralized)");
+    }
+
+    static void assertSame(Metrics expected, Metrics actual, String what) {
+        assertEquals(expected.getHoldingCost(), actual.getHoldingCost(), 0.0, what + ": holding");
+        assertEquals(expected.getBackorderCost(), actual.getBackorderCost(), 0.0, what + ": backorder");
+        assertEquals(expected.getTransportCost(), actual.getTransportCost(), 0.0, what + ": transport");
+        assertEquals(expected.getOrdersCount(), actual.getOrdersCount(), what + ": orders");
+        assertEquals(expected.getFillImmediate(), actual.getFillImmediate(), what + ": filled");
+        assertEquals(expected.getDemandTotal(), actual.getDemandTotal(), what + ": demand");
+    }
+}
@@ -0,0 +1,92 @@
+package inventory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * FillRateTargetTest.java
+ * The formula base stocks must let both designs reach the scenario's target fill rate, so that
+ * their costs are compared at equal service. In the centralized design that only holds because
+ * the CW and its retailers are sized together (see SupplierWait): retailers sized on their own
+ * transit demand fall short whenever the CW rations. Declared networks are sized the same way
+ * from the sources down, also behind a cross-dock that holds no stock. A design passes when the target lies below
+ * the upper end of the 95% confidence interval of its per-replication fill rate.
+ */
+class FillRateTargetTest {
+
+    private static final Simulation SIM = new Simulation(new ReplicationExecutor(4), new RandomStreams(Params.MASTER_SEED));
+    private static final int REPLICATIONS = 20;
+
+    private static List<Scenario> scenarios() {
+        Scenario base = Scenario.defaults();
+        List<Scenario> out = new ArrayList<>();
+        out.add(base);
+        out.add(base.withRho(1.0));
+        out.add(base.withDemandSigma(60.0));
+        out.add(base.withRetailers(20));
+        out.add(base.withRetailers(1));
+        out.add(base.withLeadMfgToCw(5));
+        out.add(base.withLeadCwToRetailer(3));
+        for (AllocationPolicy policy : AllocationPolicy.values()) {
+            out.add(base.withRetailers(10).withAllocation(policy));
+        }
+        return out;
+    }
+
+    @Test
+    void bothDesignsReachTheDefaultTarget() {
+        for (Scenario sc : scenarios()) {
+            assertReachesTarget(sc);
+        }
+    }
+
+    @Test
+    void bothDesignsReachLowerAndHigherTargets() {
+        for (double beta : new double[] {0.90, 0.98}) {
+            assertReachesTarget(Scenario.defaults().withTargetFillRate(beta));
+            assertReachesTarget(Scenario.defaults().withRetailers(20).withTargetFillRate(beta));
+        }
+    }
+
+    @Test
+    void declaredNetworksReachTheTarget(@TempDir Path dir) throws IOException {
+        Path threeTier = dir.resolve("three-tier.txt");
+        Files.write(threeTier, List.of(
+            "node PLANT source", "node RDC dc", "node DC1 dc", "node DC2 dc",
+            "node S1 store", "node S2 store", "node S3 store", "node S4 store", "node S5 store", "node S6 store",
+            "lane PLANT RDC 2 0.3", "lane RDC DC1 1 0.1", "lane RDC DC2 1 0.1",
+            "lane DC1 S1 1 0.2", "lane DC1 S2 1 0.2", "lane DC1 S3 1 0.2",
+            "lane DC2 S4 1 0.2", "lane DC2 S5 1 0.2", "lane DC2 S6 1 0.2"));
+        Path crossDock = dir.resolve("cross-dock.txt");
+        Files.write(crossDock, List.of(
+            "node PLANT source", "node EAST dc", "node WEST dc", "node XD dc 0",
+            "node S1 store", "node S2 store", "node S3 store",
+            "lane PLANT EAST 2 0.4", "lane PLANT WEST 3 0.4", "lane EAST XD 1 0.05",
+            "lane XD S1 1 0.2", "lane XD S2 1 0.2", "lane EAST S3 1 0.25 0.7", "lane WEST S3 2 0.25 0.3"));
+        assertReachesTarget(Scenario.defaults().withRetailers(6).withTopology(threeTier.toString()));
+        assertReachesTarget(Scenario.defaults().withRetailers(3).withTopology(crossDock.toString()));
+    }
+
+    private static void assertReachesTarget(Scenario sc) {
+        RunningStat central = new RunningStat();
+        RunningStat decentral = new RunningStat();
+        for (int rep = 1; rep <= REPLICATIONS; rep++) {
+            Metrics[] pair = SIM.runReplicationPair(sc, rep);
+            central.add(pair[0].calculateFillRate());
+            decentral.add(pair[1].calculateFillRate());
+        }
+        double beta = sc.getTargetFillRate();
+        assertTrue(central.getMean() + central.getHalfWidth() >= beta,
+                   sc + ": centralized fill rate " + central.getMean() + " +/- " + central.getHalfWidth() + " below " + beta);
+        assertTrue(decentral.getMean() + decentral.getHalfWidth() >= beta,
+                   sc + ": decentralized fill rate " + decentral.getMean() + " +/- " + decentral.getHalfWidth() + " below " + beta);
+    }
+}
@@ -0,0 +1,137 @@
+package inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ReplicationExecutorTest.java
+ * Results must not depend on the thread count: map and forEach run every index exactly once,
+ * map returns the results in index order, also when called from inside one of its workers,
+ * reduce merges along a tree fixed by the count alone (so even floating-point sums are
+ * bit-identical), and a whole scenario run, including the sequential stopping rule, summarizes
+ * to exactly the same figures.
+ */
+class ReplicationExecutorTest {
+
+    private static final int[] THREADS = {1, 2, 3, 8};
+
+    @Test
+    void mapKeepsIndexOrder() {
+        for (int threads : THREADS) {
+            List<Integer> out = new ReplicationExecutor(threads).map(1000, i -> i * i);
+            assertEquals(1000, out.size(), "threads=" + threads);
+            for (int i = 0; i < out.size(); i++) {
+                assertEquals(i * i, (int) out.get(i), "threads=" + threads);
+            }
+        }
+    }
+
+    @Test
+    void mapRunsEveryIndexOnce() {
+        for (int threads : THREADS) {
+            AtomicIntegerArray seen = new AtomicIntegerArray(777);
+            new ReplicationExecutor(threads).map(seen.length(), seen::incrementAndGet);
+            for (int i = 0; i < seen.length(); i++) {
+                assertEquals(1, seen.get(i), "threads=" + threads + " index=" + i);
+            }
+        }
+    }
+
+    @Test
+    void forEachRunsEveryIndexOnce() {
+        for (int threads : THREADS) {
+            AtomicIntegerArray seen = new AtomicIntegerArray(777);
+            new ReplicationExecutor(threads).forEach(seen.length(), seen::incrementAndGet);
+            for (int i = 0; i < seen.length(); i++) {
+                assertEquals(1, seen.get(i), "threads=" + threads + " index=" + i);
+            }
+        }
+    }
+
+    @Test
+    void reduceIsBitIdenticalForAnyThreadCount() {
+        // A sum whose rounding depends on the order of the additions.
+        double ref = new ReplicationExecutor(1).reduce(10_001, i -> 1.0 / (i + 1) + 1e10 * (i % 3), Double::sum);
+        for (int threads : THREADS) {
+            double sum = new ReplicationExecutor(threads).reduce(10_001, i -> 1.0 / (i + 1) + 1e10 * (i % 3), Double::sum);
+            assertEquals(Double.doubleToLongBits(ref), Double.doubleToLongBits(sum), "threads=" + threads);
+        }
+    }
+
+    @Test
+    void scenarioResultsDoNotDependOnThreadCount() {
+        Scenario plain = Scenario.defaults().withDays(90).withReplications(12).withRetailers(5);
+        Scenario sequential = plain.withRelativePrecision(0.02).withMaxReplications(60);
+        for (Scenario sc : new Scenario[] {plain, sequential}) {
+            ScenarioResult ref = run(sc, 1);
+            for (int threads : THREADS) {
+                assertSameResult(ref, run(sc, threads), sc + " threads=" + threads);
+            }
+        }
+    }
+
+    @Test
+    void nestedMapJoinsTheCallersPool() {
+        for (int threads : THREADS) {
+            ReplicationExecutor executor = new ReplicationExecutor(threads);
+            List<List<Integer>> out = executor.map(20, i -> executor.map(i, j -> 100 * i + j));
+            for (int i = 0; i < out.size(); i++) {
+                assertEquals(i, out.get(i).size(), "threads=" + threads);
+                for (int j = 0; j < i; j++) {
+                    assertEquals(100 * i + j, (int) out.get(i).get(j), "threads=" + threads);
+                }
+            }
+        }
+    }
+
+    @Test
+    void mapOfNothingIsEmpty() {
+        assertEquals(0, new ReplicationExecutor(2).map(0, i -> i).size());
+    }
+
+    @Test
+    void rejectsNonPositiveThreadCount() {
+        assertThrows(IllegalArgumentException.class, () -> new ReplicationExecutor(0));
+    }
+
+    private static ScenarioResult run(Scenario sc, int threads) {
+        return new Simulation(new ReplicationExecutor(threads), new RandomStreams(Params.MASTER_SEED)).runScenario(sc);
+    }
+
+    private static void assertSameResult(ScenarioResult expected, ScenarioResult actual, String what) {
+        assertSameSummary(expected.getCentralized(), actual.getCentralized(), what + " (centralized)");
+        assertSameSummary(expected.getDecentralized(), actual.getDecentralized(), what + " (decentralized)");
+        assertEquals(expected.getDifference().getCount(), actual.getDifference().getCount(), what + ": replications");
+        assertEquals(expected.getDifference().getMeanDiff(), actual.getDifference().getMeanDiff(), 0.0, what + ": difference");
+        assertEquals(expected.getDifference().getHalfWidth(), actual.getDifference().getHalfWidth(), 0.0, what + ": half-width");
+    }
+
+    private static void assertSameSummary(SummaryMetrics expected, SummaryMetrics actual, String what) {
+        assertEquals(expected.totalCostPerDay, actual.totalCostPerDay, 0.0, what + ": cost");
+        assertEquals(expected.totalCostHalfWidth, actual.totalCostHalfWidth, 0.0, what + ": cost half-width");
+        assertEquals(expected.fillRate, actual.fillRate, 0.0, what + ": fill rate");
+        assertEquals(expected.avgHoldingCostPerDay, actual.avgHoldingCostPerDay, 0.0, what + ": holding");
+        assertEquals(expected.avgBackorderCostPerDay, actual.avgBackorderCostPerDay, 0.0, what + ": backorder");
+        assertEquals(expected.avgTransportCostPerDay, actual.avgTransportCostPerDay, 0.0, what + ": transport");
+        assertEquals(expected.avgOrdersPerDay, actual.avgOrdersPerDay, 0.0, what + ": orders");
+        assertSameStat(expected.getTotalCost(), actual.getTotalCost(), what + ": cost stat");
+        assertSameStat(expected.getFillRates(), actual.getFillRates(), what + ": fill rate stat");
+        assertSameStat(expected.getHolding(), actual.getHolding(), what + ": holding stat");
+        assertSameStat(expected.getBackorder(), actual.getBackorder(), what + ": backorder stat");
+        assertSameStat(expected.getTransport(), actual.getTransport(), what + ": transport stat");
+        assertSameStat(expected.getOrders(), actual.getOrders(), what + ": orders stat");
+    }
+
+    private static void assertSameStat(RunningStat expected, RunningStat actual, String what) {
+        assertEquals(expected.getCount(), actual.getCount(), what + " count");
+        assertEquals(expected.getMean(), actual.getMean(), 0.0, what + " mean");
+        assertEquals(expected.getVariance(), actual.getVariance(), 0.0, what + " variance");
+        assertEquals(expected.getMin(), actual.getMin(), 0.0, what + " min");
+        assertEquals(expected.getMax(), actual.getMax(), 0.0, what + " max");
+    }
+}
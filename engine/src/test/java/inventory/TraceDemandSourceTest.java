@@ -0,0 +1,59 @@
+package inventory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * TraceDemandSourceTest.java
+ * CSV traces: whitespace and quotes around a value are padding, whitespace inside it makes the
+ * value non-numeric, and a demand beyond the int range is an error naming its line rather than
+ * a silently wrapped number.
+ */
+class TraceDemandSourceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ignoresPaddingAroundValues() throws IOException {
+        Path csv = write("date,a,b", "\"2024-01-01\", 3 ,\"4.5\"", "2024-01-02,\t-2,  7\r");
+        try (TraceDemandSource src = TraceDemandSource.open(csv, 2, 0)) {
+            int[] day = new int[2];
+            src.fillDay(1, day);
+            assertArrayEquals(new int[] {3, 5}, day);
+            src.fillDay(2, day);
+            assertArrayEquals(new int[] {0, 7}, day);
+        }
+    }
+
+    @Test
+    void rejectsWhitespaceInsideAValue() throws IOException {
+        Path csv = write("1,2", "3,4 5");
+        IOException e = assertThrows(IOException.class, () -> TraceDemandSource.index(csv, 2));
+        assertTrue(e.getMessage().contains("line 2: non-numeric"), e.getMessage());
+    }
+
+    @Test
+    void rejectsDemandBeyondTheIntRange() throws IOException {
+        Path csv = write("1,2", "3,2147483647", "5,2147483648");
+        IOException e = assertThrows(IOException.class, () -> TraceDemandSource.index(csv, 2));
+        assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+        Path rounded = write("1,2147483647.5");
+        assertThrows(IOException.class, () -> TraceDemandSource.index(rounded, 2));
+    }
+
+    private Path write(String... lines) throws IOException {
+        Path p = Files.createTempFile(dir, "trace", ".csv");
+        Files.write(p, List.of(lines));
+        return p;
+    }
+}
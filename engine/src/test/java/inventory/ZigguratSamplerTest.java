@@ -0,0 +1,125 @@
+package inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ZigguratSamplerTest.java
+ * Checks that ZigguratSampler draws standard normal variates: the first four moments, and the
+ * whole distribution against ServiceLevel.cdf by Kolmogorov-Smirnov and by chi-square on bins
+ * that reach into the tail (|z| > 3.44 is drawn by a separate path). Seeds are fixed, so the
+ * tests are deterministic; the bounds are several standard errors wide. The bulk demand fills
+ * must give exactly the demand of single draws.
+ */
+class ZigguratSamplerTest {
+
+    private static final int DRAWS = 1_000_000;
+
+    @Test
+    void momentsAreStandardNormal() {
+        SplittableRandom rng = new SplittableRandom(20240601L);
+        double s1 = 0.0, s2 = 0.0, s3 = 0.0, s4 = 0.0;
+        for (int i = 0; i < DRAWS; i++) {
+            double z = ZigguratSampler.next(rng);
+            double z2 = z * z;
+            s1 += z;
+            s2 += z2;
+            s3 += z2 * z;
+            s4 += z2 * z2;
+        }
+        double mean = s1 / DRAWS;
+        double variance = s2 / DRAWS - mean * mean;
+        // Standard errors at n = 1e6: mean 0.001, variance 0.0014, skewness 0.0024, kurtosis 0.0049.
+        assertEquals(0.0, mean, 0.005, "mean");
+        assertEquals(1.0, variance, 0.007, "variance");
+        assertEquals(0.0, s3 / DRAWS, 0.015, "skewness");
+        assertEquals(3.0, s4 / DRAWS, 0.03, "kurtosis");
+    }
+
+    @Test
+    void kolmogorovSmirnovAgainstNormalCdf() {
+        int n = 200_000;
+        SplittableRandom rng = new SplittableRandom(7L);
+        double[] z = new double[n];
+        for (int i = 0; i < n; i++) {
+            z[i] = ZigguratSampler.next(rng);
+        }
+        Arrays.sort(z);
+        double d = 0.0;
+        for (int i = 0; i < n; i++) {
+            double f = ServiceLevel.cdf(z[i]);
+            d = Math.max(d, Math.max((i + 1.0) / n - f, f - (double) i / n));
+        }
+        // Critical value at the 0.1% level: 1.95 / sqrt(n).
+        assertTrue(d < 1.95 / Math.sqrt(n), "KS distance " + d);
+    }
+
+    @Test
+    void chiSquareOnBinsIncludingTails() {
+        double[] edges = new double[33];           // -4.0, -3.75, ..., 4.0, plus open ends.
+        for (int k = 0; k < edges.length; k++) {
+            edges[k] = -4.0 + 0.25 * k;
+        }
+        long[] counts = new long[edges.length + 1];
+        SplittableRandom rng = new SplittableRandom(99L);
+        for (int i = 0; i < DRAWS; i++) {
+            double z = ZigguratSampler.next(rng);
+            int bin = Arrays.binarySearch(edges, z);
+            counts[bin >= 0 ? bin + 1 : -bin - 1]++;
+        }
+        double chi2 = 0.0;
+        for (int b = 0; b < counts.length; b++) {
+            double lo = b == 0 ? 0.0 : ServiceLevel.cdf(edges[b - 1]);
+            double hi = b == edges.length ? 1.0 : ServiceLevel.cdf(edges[b]);
+            double expected = DRAWS * (hi - lo);
+            chi2 += (counts[b] - expected) * (counts[b] - expected) / expected;
+        }
+        // 34 bins, 33 degrees of freedom: the 0.1% critical value is 63.9.
+        assertTrue(chi2 < 63.9, "chi-square " + chi2);
+        assertTrue(counts[0] > 0 && counts[counts.length - 1] > 0, "both tails drawn");
+    }
+
+    @Test
+    void samplerEnumDrawsTheSameVariates() {
+        SplittableRandom a = new SplittableRandom(5L);
+        SplittableRandom b = new SplittableRandom(5L);
+        double[] block = new double[1000];
+        NormalSampler.ZIGGURAT.fill(a, block, 0, block.length);
+        for (double z : block) {
+            assertEquals(ZigguratSampler.next(b), z, 0.0);
+        }
+    }
+
+    @Test
+    void bulkDemandFillMatchesSingleDraws() {
+        int days = 50;
+        int n = 37;                                // Not a multiple of any vector width.
+        for (NormalSampler sampler : NormalSampler.values()) {
+            int[][] block = new int[days][n];
+            sampler.fillDemand(RandomStreams.retailerStreams(3L, n), 100.0, 40.0, DemandTransform.best(),
+                               new double[n], block);
+            SplittableRandom[] rngs = RandomStreams.retailerStreams(3L, n);
+            for (int day = 0; day < days; day++) {
+                for (int i = 0; i < n; i++) {
+                    assertEquals(NormalDemandSource.drawDailyDemand(sampler, rngs[i], 100.0, 40.0), block[day][i],
+                                 sampler + " day " + day + " retailer " + i);
+                }
+            }
+            // DemandMatrix.generate takes the block path; a live source gives the same days one at a time.
+            DemandMatrix matrix = DemandMatrix.generate(new NormalDemandSource(3L, n, 100.0, 40.0, sampler), days, n);
+            NormalDemandSource live = new NormalDemandSource(3L, n, 100.0, 40.0, sampler);
+            int[] today = new int[n];
+            for (int day = 1; day <= days; day++) {
+                live.fillDay(day, today);
+                for (int i = 0; i < n; i++) {
+                    assertEquals(today[i], matrix.get(day, i), sampler + " day " + day + " retailer " + i);
+                }
+            }
+        }
+    }
+}